@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2011 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.android.opengl;
+
+import java.nio.Buffer;
+
+/**
+ * The subset of OpenGL ES 2.0 calls issued by this sample. Drawing code
+ * goes through this interface instead of calling GLES20 directly, so the
+ * calls can be recorded ({@link TracingGL}) or replayed against a stand-in
+ * implementation on a desktop JVM ({@link TraceReplay}).
+ * 本示例使用到的OpenGL ES 2.0方法的子集.
+ * 绘图代码通过这个接口而不是直接调用GLES20,
+ * 这样这些调用可以被录制({@link TracingGL})或在桌面JVM上针对一个替身实现进行回放({@link TraceReplay})
+ *
+ * <p>This file must not depend on any android.* class.</p>
+ * <p>这个文件不能依赖任何android.*类</p>
+ */
+public interface GLApi {
+
+    // Constants mirrored from android.opengl.GLES20
+    // 从android.opengl.GLES20中镜像过来的常量
+    int GL_NO_ERROR             = 0;
+    int GL_DEPTH_BUFFER_BIT     = 0x00000100;
+    int GL_COLOR_BUFFER_BIT     = 0x00004000;
+    int GL_TRIANGLES            = 0x0004;
+    int GL_SCISSOR_TEST         = 0x0C11;
+    int GL_UNSIGNED_SHORT       = 0x1403;
+    int GL_FLOAT                = 0x1406;
+    int GL_FRAGMENT_SHADER      = 0x8B30;
+    int GL_VERTEX_SHADER        = 0x8B31;
+
+    void glClearColor(float red, float green, float blue, float alpha);
+
+    void glClear(int mask);
+
+    void glViewport(int x, int y, int width, int height);
+
+    void glEnable(int cap);
+
+    void glDisable(int cap);
+
+    void glScissor(int x, int y, int width, int height);
+
+    int glCreateShader(int type);
+
+    void glShaderSource(int shader, String string);
+
+    void glCompileShader(int shader);
+
+    int glCreateProgram();
+
+    void glAttachShader(int program, int shader);
+
+    void glLinkProgram(int program);
+
+    void glUseProgram(int program);
+
+    int glGetAttribLocation(int program, String name);
+
+    int glGetUniformLocation(int program, String name);
+
+    void glEnableVertexAttribArray(int index);
+
+    void glDisableVertexAttribArray(int index);
+
+    void glVertexAttribPointer(int indx, int size, int type, boolean normalized,
+                               int stride, Buffer ptr);
+
+    void glUniform4fv(int location, int count, float[] v, int offset);
+
+    void glUniformMatrix4fv(int location, int count, boolean transpose,
+                            float[] value, int offset);
+
+    void glDrawArrays(int mode, int first, int count);
+
+    void glDrawElements(int mode, int count, int type, Buffer indices);
+
+    int glGetError();
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2011 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.android.opengl;
+
+import android.util.Log;
+
+/**
+ * Measures the CPU cost of drawing the scene from 1..N views, comparing
+ * {@link MyGLRenderer} with N {@link RenderView}s against the naive approach
+ * of running the single view onDrawFrame() N times with a different camera.
+ * GL calls go to {@link StubGL}, so no GL context is needed and the numbers
+ * are the submit cost only. Results are written to logcat:
+ * 测量从1..N个视图绘制场景的CPU开销,对比使用N个{@link RenderView}的{@link MyGLRenderer}
+ * 和朴素做法(用不同的相机运行N次单视图的onDrawFrame()).
+ * GL调用被发给{@link StubGL},因此不需要GL上下文,测得的仅为提交开销.结果输出到logcat:
+ * <pre>
+ * adb shell am start -n com.example.android.opengl/.OpenGLES20Activity --ez benchmark true
+ * adb logcat -s MultiViewBenchmark</pre>
+ *
+ * <p>It can also run on a desktop JVM through desktop/src/.../DesktopBenchmark,
+ * which documents the commands.</p>
+ * <p>也可以通过desktop/src/.../DesktopBenchmark在桌面JVM上运行,命令见该类</p>
+ */
+public class MultiViewBenchmark implements Runnable {
+
+    private static final String TAG = "MultiViewBenchmark";
+
+    private static final int MAX_VIEWS = 4;
+    private static final int FRAMES = 20000;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int ROUNDS = 5;
+
+    private static final int SURFACE_WIDTH = 1080;
+    private static final int SURFACE_HEIGHT = 1920;
+
+    @Override
+    public void run() {
+        MyGLRenderer[] multi = new MyGLRenderer[MAX_VIEWS + 1];
+        MyGLRenderer[] naive = new MyGLRenderer[MAX_VIEWS + 1];
+        long[] bestMulti = new long[MAX_VIEWS + 1];
+        long[] bestNaive = new long[MAX_VIEWS + 1];
+        for (int views = 1; views <= MAX_VIEWS; views++) {
+            multi[views] = createRenderer();
+            for (int i = 1; i < views; i++) {
+                multi[views].addView(new RenderView(0, 0, 1, 1));
+            }
+            naive[views] = createRenderer();
+            bestMulti[views] = Long.MAX_VALUE;
+            bestNaive[views] = Long.MAX_VALUE;
+        }
+
+        // Warm up every configuration first so the JIT has settled, then keep
+        // the best of interleaved rounds
+        // 先预热所有配置使JIT趋于稳定,然后取交替进行的多轮测试中的最好成绩
+        for (int round = -WARMUP_ROUNDS; round < ROUNDS; round++) {
+            for (int views = 1; views <= MAX_VIEWS; views++) {
+                long m = timeMultiView(multi[views]);
+                long n = timeNaive(naive[views], views);
+                if (round >= 0) {
+                    bestMulti[views] = Math.min(bestMulti[views], m);
+                    bestNaive[views] = Math.min(bestNaive[views], n);
+                }
+            }
+        }
+
+        for (int views = 1; views <= MAX_VIEWS; views++) {
+            String line = views + " views: multi-view " + bestMulti[views]
+                    + " ns/frame, naive " + bestNaive[views] + " ns/frame";
+            if (views > 1) {
+                line += ", per extra view: multi-view "
+                        + (bestMulti[views] - bestMulti[1]) / (views - 1)
+                        + " ns, naive " + (bestNaive[views] - bestNaive[1]) / (views - 1) + " ns";
+            }
+            Log.i(TAG, line);
+        }
+    }
+
+    private static MyGLRenderer createRenderer() {
+        MyGLRenderer renderer = new MyGLRenderer(new StubGL());
+        renderer.onSurfaceCreated(null, null);
+        renderer.onSurfaceChanged(null, SURFACE_WIDTH, SURFACE_HEIGHT);
+        return renderer;
+    }
+
+    // A different camera per view, all looking at the scene. Every camera
+    // moves each frame (as in stereo or a minimap following the player), so
+    // both approaches recompute every view's matrices every frame.
+    // 每个视图一个不同的相机,都朝向场景.每个相机每帧都会移动(如立体显示或跟随玩家的小地图),
+    // 因此两种做法每帧都会重新计算每个视图的矩阵
+    private static void setCamera(RenderView view, int index, int frame) {
+        view.setCamera(0.1f * index + 0.001f * (frame & 0xff), 0, -3,
+                0f, 0f, 0f, 0f, 1.0f, 0.0f);
+    }
+
+    private static long timeMultiView(MyGLRenderer renderer) {
+        int views = renderer.getViewCount();
+        long start = System.nanoTime();
+        for (int frame = 0; frame < FRAMES; frame++) {
+            renderer.setAngle(frame);
+            for (int i = 0; i < views; i++) {
+                setCamera(renderer.getView(i), i, frame);
+            }
+            renderer.onDrawFrame(null);
+        }
+        return (System.nanoTime() - start) / FRAMES;
+    }
+
+    private static long timeNaive(MyGLRenderer renderer, int views) {
+        RenderView view = renderer.getView(0);
+        long start = System.nanoTime();
+        for (int frame = 0; frame < FRAMES; frame++) {
+            renderer.setAngle(frame);
+            for (int i = 0; i < views; i++) {
+                setCamera(view, i, frame);
+                renderer.onDrawFrame(null);
+            }
+        }
+        return (System.nanoTime() - start) / FRAMES;
+    }
+}
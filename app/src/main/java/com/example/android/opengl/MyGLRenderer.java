@@ -15,10 +15,13 @@
  */
 package com.example.android.opengl;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
 import javax.microedition.khronos.egl.EGLConfig;
 import javax.microedition.khronos.opengles.GL10;
 
-import android.opengl.GLES20;
 import android.opengl.GLSurfaceView;
 import android.opengl.Matrix;
 import android.util.Log;
@@ -37,52 +40,81 @@ import android.util.Log;
 public class MyGLRenderer implements GLSurfaceView.Renderer {
 
     private static final String TAG = "MyGLRenderer";
+
+    // Size of the ring buffer between the GL thread and the trace writer
+    // GL线程和追踪写入线程之间的环形缓冲区大小
+    private static final int TRACE_RING_CAPACITY = 1 << 20;
+
+    // All GL calls go through here so they can be recorded
+    // 所有GL调用都经过这里,以便可以被录制
+    private final TracingGL mGL;
+    private TraceWriter mTraceWriter;
+    // Writer of the last trace, which may still be draining to storage
+    // 上一次录制的写入线程,可能仍在写入存储
+    private TraceWriter mPreviousWriter;
+
     private Triangle mTriangle;
     private Square   mSquare;
 
+    // Cameras the scene is drawn from each frame, each with its own viewport
+    // and cached view-projection matrix
+    // 每帧绘制场景所用的相机,每个都有自己的视口和缓存的视图投影矩阵
+    private final List<RenderView> mViews = new ArrayList<RenderView>();
+    private RenderView mViewportView;
+    private int mSurfaceWidth;
+    private int mSurfaceHeight;
+
     // mMVPMatrix is an abbreviation for "Model View Projection Matrix"
     // mMVPMatrix全称为"Model View Projection Matrix" [模型视图投影矩阵]
 
     private final float[] mMVPMatrix = new float[16];
-    private final float[] mProjectionMatrix = new float[16];
-    private final float[] mViewMatrix = new float[16];
     private final float[] mRotationMatrix = new float[16];
 
     private float mAngle;
 
+    public MyGLRenderer() {
+        this(new AndroidGL());
+    }
 
+    /**
+     * Creates a renderer that issues its GL calls to the given implementation,
+     * for example {@link StubGL} when measuring CPU cost without a GPU.
+     * 创建一个将GL调用发给指定实现的渲染器,例如在没有GPU的情况下测量CPU开销时使用{@link StubGL}
+     */
+    MyGLRenderer(GLApi gl) {
+        mGL = new TracingGL(gl);
 
+        // By default a single full screen view
+        // 默认为一个全屏视图
+        mViews.add(new RenderView(0, 0, 1, 1));
+    }
 
     @Override
     public void onSurfaceCreated(GL10 unused, EGLConfig config) {
 
         // Set the background frame color
         // 设置帧背景颜色
-        GLES20.glClearColor(0.0f, 0.0f, 0.0f, 1.0f);
+        mGL.glClearColor(0.0f, 0.0f, 0.0f, 1.0f);
 
-        mTriangle = new Triangle();
-        mSquare   = new Square();
+        mTriangle = new Triangle(mGL);
+        mSquare   = new Square(mGL);
     }
 
     @Override
     public void onDrawFrame(GL10 unused) {
-        float[] scratch = new float[16];
-
-        // Draw background color
-        // 绘制背景颜色
-        GLES20.glClear(GLES20.GL_COLOR_BUFFER_BIT | GLES20.GL_DEPTH_BUFFER_BIT);
-
-        // Set the camera position (View matrix)
-        // 设置相机位置[识图矩阵]
-        Matrix.setLookAtM(mViewMatrix, 0, 0, 0, -3, 0f, 0f, 0f, 0f, 1.0f, 0.0f);
-
-        // Calculate the projection and view transformation
-        // 计算投影和视图变换
-        Matrix.multiplyMM(mMVPMatrix, 0, mProjectionMatrix, 0, mViewMatrix, 0);
-
-        // Draw square
-        // 绘制正方形
-        mSquare.draw(mMVPMatrix);
+        // Mark the frame in the trace (does nothing when not tracing)
+        // 在追踪中标记这一帧(未录制时不做任何事)
+        mGL.beginFrame();
+
+        // Draw background color, once for all views that do not clear
+        // their own viewport
+        // 绘制背景颜色,所有不自行清除视口的视图只需一次
+        for (int i = 0, count = mViews.size(); i < count; i++) {
+            if (!mViews.get(i).getClearsBackground()) {
+                mGL.glClear(GLApi.GL_COLOR_BUFFER_BIT | GLApi.GL_DEPTH_BUFFER_BIT);
+                break;
+            }
+        }
 
         // Create a rotation for the triangle
         // 创建三角形旋转
@@ -94,35 +126,102 @@ public class MyGLRenderer implements GLSurfaceView.Renderer {
         // long time = SystemClock.uptimeMillis() % 4000L;
         // float angle = 0.090f * ((int) time);
 
+        // Only the clear and the model rotation are shared by every view.
+        // Visibility is tested per view against that view's frustum; the
+        // bounding spheres are constants (both shapes are centered on the
+        // origin and only rotate around it), so there is nothing to compute.
+        // 所有视图只共享清屏和模型旋转矩阵.可见性针对每个视图的视锥体分别测试;
+        // 包围球是常量(两个图形都以原点为中心且只绕原点旋转),因此无需计算
         Matrix.setRotateM(mRotationMatrix, 0, mAngle, 0, 0, 1.0f);
 
-        // Combine the rotation matrix with the projection and camera view
-        // Note that the mMVPMatrix factor *must be first* in order
-        // for the matrix multiplication product to be correct.
-        // 合并旋转矩阵以及投影和相机视图
-        // 注意mMVPMatrix必须作为第一个因数来保证矩阵乘积是正确的
-        Matrix.multiplyMM(scratch, 0, mMVPMatrix, 0, mRotationMatrix, 0);
-
-        // Draw triangle
-        // 绘制三角形
-        mTriangle.draw(scratch);
+        for (int i = 0, count = mViews.size(); i < count; i++) {
+            RenderView view = mViews.get(i);
+
+            // Skip glViewport when it would not change anything (single view)
+            // 当glViewport不会改变任何东西时跳过它(单视图时)
+            if (view != mViewportView) {
+                view.applyViewport(mGL);
+                mViewportView = view;
+            }
+
+            // Overlay views clear only their own viewport so they do not mix
+            // with the views drawn under them
+            // 叠加视图只清除自己的视口,这样不会和绘制在它下面的视图混在一起
+            if (view.getClearsBackground()) {
+                view.clearViewport(mGL);
+            }
+
+            // The projection and view transformation, cached by the view
+            // 投影和视图变换,由视图缓存
+            float[] vpMatrix = view.getVPMatrix();
+
+            // Draw square
+            // 绘制正方形
+            if (view.isVisible(0, 0, 0, Square.BOUNDING_RADIUS)) {
+                mSquare.draw(vpMatrix);
+            }
+
+            if (view.isVisible(0, 0, 0, Triangle.BOUNDING_RADIUS)) {
+                // Combine the rotation matrix with the projection and camera view
+                // Note that the vpMatrix factor *must be first* in order
+                // for the matrix multiplication product to be correct.
+                // 合并旋转矩阵以及投影和相机视图
+                // 注意vpMatrix必须作为第一个因数来保证矩阵乘积是正确的
+                Matrix.multiplyMM(mMVPMatrix, 0, vpMatrix, 0, mRotationMatrix, 0);
+
+                // Draw triangle
+                // 绘制三角形
+                mTriangle.draw(mMVPMatrix);
+            }
+        }
 
+        mGL.endFrame();
     }
 
     @Override
     public void onSurfaceChanged(GL10 unused, int width, int height) {
-        // Adjust the viewport based on geometry changes,
-        // such as screen rotation
-        // 基于几何调整试图大小,例如当屏幕旋转时
-        GLES20.glViewport(0, 0, width, height);
+        // Adjust the viewports based on geometry changes,
+        // such as screen rotation. Each view also rebuilds its
+        // projection matrix from its new aspect ratio.
+        // 基于几何调整视口大小,例如当屏幕旋转时.
+        // 每个视图也会根据新的宽高比重新生成投影矩阵
+        mSurfaceWidth = width;
+        mSurfaceHeight = height;
+        for (int i = 0; i < mViews.size(); i++) {
+            mViews.get(i).setSurfaceSize(width, height);
+        }
+        mViewportView = null;
+    }
 
-        float ratio = (float) width / height;
+    /**
+     * Adds a view that is drawn after the existing ones. Must be called on
+     * the GL thread.
+     * 添加一个在现有视图之后绘制的视图.必须在GL线程中调用
+     */
+    public void addView(RenderView view) {
+        if (mSurfaceWidth > 0) {
+            view.setSurfaceSize(mSurfaceWidth, mSurfaceHeight);
+        }
+        mViews.add(view);
+    }
+
+    /**
+     * Removes a view. Must be called on the GL thread.
+     * 移除一个视图.必须在GL线程中调用
+     */
+    public void removeView(RenderView view) {
+        mViews.remove(view);
+        if (view == mViewportView) {
+            mViewportView = null;
+        }
+    }
 
-        // this projection matrix is applied to object coordinates
-        // in the onDrawFrame() method
-        // 这个投影矩阵在onDrawFrame()方法中被应用到对象坐标上
-        Matrix.frustumM(mProjectionMatrix, 0, -ratio, ratio, -1, 1, 3, 7);
+    public RenderView getView(int index) {
+        return mViews.get(index);
+    }
 
+    public int getViewCount() {
+        return mViews.size();
     }
 
     /**
@@ -133,21 +232,22 @@ public class MyGLRenderer implements GLSurfaceView.Renderer {
      * method to debug shader coding errors.</p>
      * <p><strong>注意:</strong> 当你正在开发着色器时, 使用checkGlError()方法来debug着色器的代码错误</p>
      *
+     * @param gl - Target for the GL calls. GL调用的目标
      * @param type - Vertex or fragment shader type. 顶点或着色器类型
      * @param shaderCode - String containing the shader code. 字符串类型的着色器源码
      * @return - Returns an id for the shader. 返回着色器的id
      */
-    public static int loadShader(int type, String shaderCode){
+    public static int loadShader(GLApi gl, int type, String shaderCode){
 
-        // create a vertex shader type (GLES20.GL_VERTEX_SHADER)
-        // or a fragment shader type (GLES20.GL_FRAGMENT_SHADER)
-        // 创建一个顶点着色器类型(GLES20.GL_VERTEX_SHADER)或一个片段着色器类型(GLES20.GL_FRAGMENT_SHADER)
-        int shader = GLES20.glCreateShader(type);
+        // create a vertex shader type (GLApi.GL_VERTEX_SHADER)
+        // or a fragment shader type (GLApi.GL_FRAGMENT_SHADER)
+        // 创建一个顶点着色器类型(GLApi.GL_VERTEX_SHADER)或一个片段着色器类型(GLApi.GL_FRAGMENT_SHADER)
+        int shader = gl.glCreateShader(type);
 
         // add the source code to the shader and compile it
         // 添加源码到着色器中然后编译它
-        GLES20.glShaderSource(shader, shaderCode);
-        GLES20.glCompileShader(shader);
+        gl.glShaderSource(shader, shaderCode);
+        gl.glCompileShader(shader);
 
         return shader;
     }
@@ -158,17 +258,18 @@ public class MyGLRenderer implements GLSurfaceView.Renderer {
      * 用于OpenGL方法错误检查.提供前一个操作的方法名称即可,例如
     *
     * <pre>
-    * mColorHandle = GLES20.glGetUniformLocation(mProgram, "vColor");
-    * MyGLRenderer.checkGlError("glGetUniformLocation");</pre>
+    * mColorHandle = mGL.glGetUniformLocation(mProgram, "vColor");
+    * MyGLRenderer.checkGlError(mGL, "glGetUniformLocation");</pre>
     *
     * If the operation is not successful, the check throws an error.
      * 如果操作没有成功,本方法将会抛出错误
     *
+    * @param gl - Target for the GL calls. GL调用的目标
     * @param glOperation - Name of the OpenGL call to check. 需要检测的OpenGL方法的名称
     */
-    public static void checkGlError(String glOperation) {
+    public static void checkGlError(GLApi gl, String glOperation) {
         int error;
-        while ((error = GLES20.glGetError()) != GLES20.GL_NO_ERROR) {
+        while ((error = gl.glGetError()) != GLApi.GL_NO_ERROR) {
             Log.e(TAG, glOperation + ": glError " + error);
             throw new RuntimeException(glOperation + ": glError " + error);
         }
@@ -192,5 +293,44 @@ public class MyGLRenderer implements GLSurfaceView.Renderer {
         mAngle = angle;
     }
 
+    /**
+     * Starts recording every GL call into a trace file, replacing any trace
+     * in progress. Must be called on the GL thread.
+     * 开始将每个GL调用录制到追踪文件中,替换正在进行的录制.必须在GL线程中调用
+     *
+     * @param file - Where to write the trace, see {@link TraceReplay}. 追踪文件的写入位置,参见{@link TraceReplay}
+     */
+    public void startTrace(File file) {
+        stopTrace();
+
+        // The previous trace may target the same file; the new writer waits
+        // for it on its own thread, so the GL thread never blocks here
+        // 之前的追踪可能写入同一个文件;新的写入线程在它自己的线程中等待,因此GL线程永远不会在这里阻塞
+        TraceRingBuffer ring = new TraceRingBuffer(TRACE_RING_CAPACITY);
+        mTraceWriter = new TraceWriter(ring, file, mPreviousWriter);
+        mTraceWriter.start();
+        mGL.setRing(ring);
+    }
+
+    /**
+     * Stops recording. The rest of the trace is written out on a background
+     * thread, so this never waits for storage. Must be called on the GL
+     * thread, like {@link #startTrace}; all trace state is only touched there.
+     * 停止录制.追踪的剩余部分在后台线程中写出,因此本方法从不等待存储.
+     * 与{@link #startTrace}一样必须在GL线程中调用;所有录制状态只在GL线程中访问
+     */
+    public void stopTrace() {
+        if (mTraceWriter == null) {
+            return;
+        }
+        if (mGL.getDroppedRecords() > 0) {
+            Log.w(TAG, "Frame trace dropped " + mGL.getDroppedRecords() + " records");
+        }
+        mGL.setRing(null);
+        mTraceWriter.finish();
+        mPreviousWriter = mTraceWriter;
+        mTraceWriter = null;
+    }
+
 
 }
\ No newline at end of file
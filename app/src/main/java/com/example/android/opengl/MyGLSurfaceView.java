@@ -15,6 +15,8 @@
  */
 package com.example.android.opengl;
 
+import java.io.File;
+
 import android.content.Context;
 import android.opengl.GLSurfaceView;
 import android.view.MotionEvent;
@@ -94,6 +96,50 @@ public class MyGLSurfaceView extends GLSurfaceView {
         return true;
     }
 
+    /**
+     * Adds a camera view on the rendering thread, see {@link RenderView}.
+     * 在渲染线程中添加一个相机视图,参见{@link RenderView}
+     */
+    public void addRenderView(final RenderView view) {
+        queueEvent(new Runnable() {
+            @Override
+            public void run() {
+                mRenderer.addView(view);
+                requestRender();
+            }
+        });
+    }
+
+    /**
+     * Starts recording a frame trace on the rendering thread.
+     * 在渲染线程中开始录制帧追踪
+     */
+    public void startTrace(final File file) {
+        queueEvent(new Runnable() {
+            @Override
+            public void run() {
+                mRenderer.startTrace(file);
+            }
+        });
+    }
+
+    /**
+     * Finishes the frame trace on the rendering thread, after any queued
+     * {@link #startTrace}. The rendering thread still runs queued events
+     * while paused, so this can be called around {@link #onPause()}.
+     * Does not wait for the file to be written.
+     * 在渲染线程中结束帧追踪,在之前排队的{@link #startTrace}之后执行.
+     * 渲染线程在暂停时仍会执行排队的事件,因此可以在{@link #onPause()}前后调用.不会等待文件写入完成
+     */
+    public void stopTrace() {
+        queueEvent(new Runnable() {
+            @Override
+            public void run() {
+                mRenderer.stopTrace();
+            }
+        });
+    }
+
 
 
 }
@@ -15,13 +15,36 @@
  */
 package com.example.android.opengl;
 
+import java.io.File;
+
 import android.app.Activity;
 import android.opengl.GLSurfaceView;
 import android.os.Bundle;
 
 public class OpenGLES20Activity extends Activity {
 
-    private GLSurfaceView mGLView;
+    /**
+     * Boolean extra: record a frame trace while the activity is resumed, e.g.
+     * {@code adb shell am start -n com.example.android.opengl/.OpenGLES20Activity --ez trace true}
+     * 布尔类型的extra:在Activity处于resumed状态时录制帧追踪
+     */
+    public static final String EXTRA_TRACE = "trace";
+
+    /**
+     * Boolean extra: also draw the scene from a second camera in a
+     * picture-in-picture view in the top right corner.
+     * 布尔类型的extra:同时在右上角的画中画视图中用第二个相机绘制场景
+     */
+    public static final String EXTRA_PIP = "pip";
+
+    /**
+     * Boolean extra: run {@link MultiViewBenchmark} in the background and log the results.
+     * 布尔类型的extra:在后台运行{@link MultiViewBenchmark}并将结果输出到日志
+     */
+    public static final String EXTRA_BENCHMARK = "benchmark";
+
+    private MyGLSurfaceView mGLView;
+    private File mTraceFile;
 
     @Override
     public void onCreate(Bundle savedInstanceState) {
@@ -32,6 +55,43 @@ public class OpenGLES20Activity extends Activity {
         // 创建一个GLSurfaceView和设置它为本Activity的ContentView
         mGLView = new MyGLSurfaceView(this);
         setContentView(mGLView);
+
+        if (getIntent().getBooleanExtra(EXTRA_PIP, false)) {
+            RenderView pip = new RenderView(0.65f, 0.75f, 0.3f, 0.2f);
+            pip.setCamera(0, 0, -5, 0f, 0f, 0f, 0f, 1.0f, 0.0f);
+            pip.setDepthRange(3, 9);
+            pip.setClearsBackground(true);
+            mGLView.addRenderView(pip);
+        }
+
+        // Only on first launch, not again after a rotation or other
+        // configuration change. Continuous rendering is paused meanwhile so
+        // the GL thread does not compete with the measurement.
+        // 仅在首次启动时运行,旋转或其他配置变化后不再运行.
+        // 运行期间暂停连续渲染,这样GL线程不会干扰测量
+        if (savedInstanceState == null && getIntent().getBooleanExtra(EXTRA_BENCHMARK, false)) {
+            final MyGLSurfaceView view = mGLView;
+            view.setRenderMode(GLSurfaceView.RENDERMODE_WHEN_DIRTY);
+            new Thread("MultiViewBenchmark") {
+                @Override
+                public void run() {
+                    new MultiViewBenchmark().run();
+                    view.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            view.setRenderMode(GLSurfaceView.RENDERMODE_CONTINUOUSLY);
+                        }
+                    });
+                }
+            }.start();
+        }
+
+        if (getIntent().getBooleanExtra(EXTRA_TRACE, false)) {
+            // Each resume overwrites the previous trace
+            // 每次恢复都会覆盖之前的追踪文件
+            File dir = getExternalFilesDir(null);
+            mTraceFile = new File(dir != null ? dir : getFilesDir(), "frames.gltrace");
+        }
     }
 
     @Override
@@ -44,6 +104,12 @@ public class OpenGLES20Activity extends Activity {
         // 接下来调用onPause()来暂停渲染线程
         // 如果你的OpenGL程序是内存密集型的,你应该考虑在这里释放掉特别占用内存的对象
         mGLView.onPause();
+        if (mTraceFile != null) {
+            // Queued behind any pending startTrace(), the paused rendering
+            // thread still runs it
+            // 排在所有待执行的startTrace()之后,暂停的渲染线程仍会执行它
+            mGLView.stopTrace();
+        }
     }
 
     @Override
@@ -55,5 +121,8 @@ public class OpenGLES20Activity extends Activity {
         // 接下来调用onResume()来恢复渲染线程
         // 如果你在onPause()中释放掉了一些图形对象,这里将是重新加载它们的绝佳之地
         mGLView.onResume();
+        if (mTraceFile != null) {
+            mGLView.startTrace(mTraceFile);
+        }
     }
 }
\ No newline at end of file
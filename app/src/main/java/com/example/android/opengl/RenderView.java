@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2011 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.android.opengl;
+
+import android.opengl.Matrix;
+
+/**
+ * One camera looking at the scene, drawn into its own part of the surface
+ * (full screen, split screen, minimap, picture-in-picture...).
+ * The view-projection matrix and the frustum planes are cached and only
+ * recomputed when the camera, depth range or surface size changes.
+ * 一个观察场景的相机,绘制到surface中属于它自己的区域(全屏,分屏,小地图,画中画...).
+ * 视图投影矩阵和视锥体平面会被缓存,仅在相机,深度范围或surface尺寸变化时重新计算
+ */
+public class RenderView {
+
+    // Viewport as fractions of the surface, origin at the bottom left
+    // 以surface的比例表示的视口,原点在左下角
+    private final float mLeft;
+    private final float mBottom;
+    private final float mWidth;
+    private final float mHeight;
+
+    // Viewport in pixels
+    // 以像素表示的视口
+    private int mViewportX;
+    private int mViewportY;
+    private int mViewportWidth;
+    private int mViewportHeight;
+
+    private final float[] mCamera = { 0, 0, -3, 0f, 0f, 0f, 0f, 1.0f, 0.0f };
+    private float mNear = 3;
+    private float mFar = 7;
+
+    private final float[] mViewMatrix = new float[16];
+    private final float[] mProjectionMatrix = new float[16];
+    private final float[] mVPMatrix = new float[16];
+
+    // Six planes (a, b, c, d) in world space: left, right, bottom, top, near, far
+    // 世界空间中的六个平面(a, b, c, d):左,右,下,上,近,远
+    private final float[] mPlanes = new float[24];
+    private boolean mDirty = true;
+
+    private boolean mClearsBackground;
+
+    /**
+     * Creates a view covering the given part of the surface. All values are
+     * fractions of the surface size, e.g. (0, 0, 1, 1) is full screen.
+     * 创建一个覆盖surface指定区域的视图.所有值都是surface尺寸的比例,例如(0, 0, 1, 1)为全屏
+     */
+    public RenderView(float left, float bottom, float width, float height) {
+        mLeft = left;
+        mBottom = bottom;
+        mWidth = width;
+        mHeight = height;
+    }
+
+    /**
+     * Sets the camera position, same arguments as Matrix.setLookAtM().
+     * Once the view has been added to a renderer this must be called on the
+     * GL thread, e.g. from GLSurfaceView.queueEvent().
+     * 设置相机位置,参数和Matrix.setLookAtM()一致.
+     * 视图被添加到渲染器之后必须在GL线程中调用,例如通过GLSurfaceView.queueEvent()
+     */
+    public void setCamera(float eyeX, float eyeY, float eyeZ,
+                          float centerX, float centerY, float centerZ,
+                          float upX, float upY, float upZ) {
+        mCamera[0] = eyeX;    mCamera[1] = eyeY;    mCamera[2] = eyeZ;
+        mCamera[3] = centerX; mCamera[4] = centerY; mCamera[5] = centerZ;
+        mCamera[6] = upX;     mCamera[7] = upY;     mCamera[8] = upZ;
+        mDirty = true;
+    }
+
+    /**
+     * Sets the near and far clipping distances of the projection.
+     * Same threading rule as {@link #setCamera}.
+     * 设置投影的近裁剪面和远裁剪面距离.线程要求与{@link #setCamera}相同
+     *
+     * @throws IllegalArgumentException - if near <= 0 or near >= far. 如果near <= 0或near >= far
+     */
+    public void setDepthRange(float near, float far) {
+        if (!(near > 0 && far > near)) {
+            throw new IllegalArgumentException("invalid depth range: near " + near + ", far " + far);
+        }
+        mNear = near;
+        mFar = far;
+        mDirty = true;
+    }
+
+    /**
+     * Called from onSurfaceChanged() to resize the viewport.
+     * 在onSurfaceChanged()中调用,用于调整视口大小
+     */
+    void setSurfaceSize(int width, int height) {
+        mViewportX = Math.round(mLeft * width);
+        mViewportY = Math.round(mBottom * height);
+        mViewportWidth = Math.max(1, Math.round(mWidth * width));
+        mViewportHeight = Math.max(1, Math.round(mHeight * height));
+        mDirty = true;
+    }
+
+    void applyViewport(GLApi gl) {
+        gl.glViewport(mViewportX, mViewportY, mViewportWidth, mViewportHeight);
+    }
+
+    /**
+     * Makes this view clear its own viewport before drawing, for views drawn
+     * on top of others (minimap, picture-in-picture...). Off by default:
+     * views that do not clear themselves share one full surface clear per frame.
+     * 使这个视图在绘制前清除它自己的视口,用于绘制在其他视图之上的视图(小地图,画中画...).
+     * 默认关闭:不自行清除的视图每帧共享一次全surface的清屏
+     */
+    public void setClearsBackground(boolean clears) {
+        mClearsBackground = clears;
+    }
+
+    public boolean getClearsBackground() {
+        return mClearsBackground;
+    }
+
+    /**
+     * Clears color and depth inside this view's viewport only.
+     * 仅清除这个视图视口内的颜色和深度
+     */
+    void clearViewport(GLApi gl) {
+        gl.glEnable(GLApi.GL_SCISSOR_TEST);
+        gl.glScissor(mViewportX, mViewportY, mViewportWidth, mViewportHeight);
+        gl.glClear(GLApi.GL_COLOR_BUFFER_BIT | GLApi.GL_DEPTH_BUFFER_BIT);
+        gl.glDisable(GLApi.GL_SCISSOR_TEST);
+    }
+
+    /**
+     * Returns the cached projection * view matrix. Do not modify.
+     * 返回缓存的 投影 * 视图 矩阵.不要修改它
+     */
+    public float[] getVPMatrix() {
+        if (mDirty) {
+            update();
+        }
+        return mVPMatrix;
+    }
+
+    /**
+     * Tests a world space bounding sphere against this view's frustum.
+     * 用这个视图的视锥体测试一个世界空间中的包围球
+     *
+     * @return - false if the sphere is certainly outside the view. 如果包围球一定在视图之外则返回false
+     */
+    public boolean isVisible(float x, float y, float z, float radius) {
+        if (mDirty) {
+            update();
+        }
+        float[] p = mPlanes;
+        for (int i = 0; i < 24; i += 4) {
+            if (p[i] * x + p[i + 1] * y + p[i + 2] * z + p[i + 3] < -radius) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void update() {
+        // Same camera and projection that MyGLRenderer used before views existed
+        // 与引入视图之前MyGLRenderer使用的相机和投影相同
+        float[] c = mCamera;
+        Matrix.setLookAtM(mViewMatrix, 0, c[0], c[1], c[2], c[3], c[4], c[5], c[6], c[7], c[8]);
+        float ratio = (float) mViewportWidth / mViewportHeight;
+        Matrix.frustumM(mProjectionMatrix, 0, -ratio, ratio, -1, 1, mNear, mFar);
+        Matrix.multiplyMM(mVPMatrix, 0, mProjectionMatrix, 0, mViewMatrix, 0);
+
+        // Extract the frustum planes from the rows of the column-major VP matrix
+        // 从列主序的VP矩阵的行中提取视锥体平面
+        float[] m = mVPMatrix;
+        for (int i = 0; i < 3; i++) {
+            setPlane(i * 2,     m[3] + m[i], m[7] + m[4 + i], m[11] + m[8 + i], m[15] + m[12 + i]);
+            setPlane(i * 2 + 1, m[3] - m[i], m[7] - m[4 + i], m[11] - m[8 + i], m[15] - m[12 + i]);
+        }
+        mDirty = false;
+    }
+
+    private void setPlane(int index, float a, float b, float c, float d) {
+        float length = (float) Math.sqrt(a * a + b * b + c * c);
+        int i = index * 4;
+        mPlanes[i]     = a / length;
+        mPlanes[i + 1] = b / length;
+        mPlanes[i + 2] = c / length;
+        mPlanes[i + 3] = d / length;
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2011 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.android.opengl;
+
+import java.nio.Buffer;
+
+/**
+ * A stand-in {@link GLApi} with no GPU behind it, used to replay traces on
+ * a desktop JVM. Every call folds its arguments into a checksum, so the work
+ * cannot be optimized away and two replays of the same trace can be checked
+ * for identical input.
+ * 一个背后没有GPU的替身{@link GLApi},用于在桌面JVM上回放追踪文件.
+ * 每个调用都会将它的参数折叠进一个校验和中,这样这些工作不会被优化掉,
+ * 并且可以检查同一追踪文件的两次回放是否输入一致
+ *
+ * <p>This file must not depend on any android.* class.</p>
+ * <p>这个文件不能依赖任何android.*类</p>
+ */
+public class StubGL implements GLApi {
+
+    private long mChecksum;
+    private int mNextName = 1;
+
+    public long getChecksum() {
+        return mChecksum;
+    }
+
+    public void reset() {
+        mChecksum = 0;
+        mNextName = 1;
+    }
+
+    private void mix(long value) {
+        mChecksum = mChecksum * 31 + value;
+    }
+
+    private void mix(float value) {
+        mix(Float.floatToRawIntBits(value));
+    }
+
+    @Override
+    public void glClearColor(float red, float green, float blue, float alpha) {
+        mix(red); mix(green); mix(blue); mix(alpha);
+    }
+
+    @Override
+    public void glClear(int mask) {
+        mix(mask);
+    }
+
+    @Override
+    public void glViewport(int x, int y, int width, int height) {
+        mix(x); mix(y); mix(width); mix(height);
+    }
+
+    @Override
+    public void glEnable(int cap) {
+        mix(cap);
+    }
+
+    @Override
+    public void glDisable(int cap) {
+        mix(cap);
+    }
+
+    @Override
+    public void glScissor(int x, int y, int width, int height) {
+        mix(x); mix(y); mix(width); mix(height);
+    }
+
+    @Override
+    public int glCreateShader(int type) {
+        mix(type);
+        return mNextName++;
+    }
+
+    @Override
+    public void glShaderSource(int shader, String string) {
+        mix(shader); mix(string.hashCode());
+    }
+
+    @Override
+    public void glCompileShader(int shader) {
+        mix(shader);
+    }
+
+    @Override
+    public int glCreateProgram() {
+        return mNextName++;
+    }
+
+    @Override
+    public void glAttachShader(int program, int shader) {
+        mix(program); mix(shader);
+    }
+
+    @Override
+    public void glLinkProgram(int program) {
+        mix(program);
+    }
+
+    @Override
+    public void glUseProgram(int program) {
+        mix(program);
+    }
+
+    @Override
+    public int glGetAttribLocation(int program, String name) {
+        mix(program); mix(name.hashCode());
+        return 0;
+    }
+
+    @Override
+    public int glGetUniformLocation(int program, String name) {
+        mix(program); mix(name.hashCode());
+        return 1;
+    }
+
+    @Override
+    public void glEnableVertexAttribArray(int index) {
+        mix(index);
+    }
+
+    @Override
+    public void glDisableVertexAttribArray(int index) {
+        mix(index);
+    }
+
+    @Override
+    public void glVertexAttribPointer(int indx, int size, int type, boolean normalized,
+                                      int stride, Buffer ptr) {
+        mix(indx); mix(size); mix(type); mix(normalized ? 1 : 0); mix(stride);
+        mix(ptr.remaining());
+    }
+
+    @Override
+    public void glUniform4fv(int location, int count, float[] v, int offset) {
+        mix(location);
+        for (int i = 0; i < count * 4; i++) {
+            mix(v[offset + i]);
+        }
+    }
+
+    @Override
+    public void glUniformMatrix4fv(int location, int count, boolean transpose,
+                                   float[] value, int offset) {
+        mix(location); mix(transpose ? 1 : 0);
+        for (int i = 0; i < count * 16; i++) {
+            mix(value[offset + i]);
+        }
+    }
+
+    @Override
+    public void glDrawArrays(int mode, int first, int count) {
+        mix(mode); mix(first); mix(count);
+    }
+
+    @Override
+    public void glDrawElements(int mode, int count, int type, Buffer indices) {
+        mix(mode); mix(count); mix(type); mix(indices.remaining());
+    }
+
+    @Override
+    public int glGetError() {
+        return GL_NO_ERROR;
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2011 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.android.opengl;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteOrder;
+
+/**
+ * Constants describing the binary frame trace written by {@link TracingGL}
+ * and read back by {@link TraceReplay}.
+ * 描述由{@link TracingGL}写入并由{@link TraceReplay}读回的二进制帧追踪格式的常量
+ *
+ * <p>All values are little-endian. A trace file starts with the int
+ * {@link #MAGIC} followed by the int {@link #VERSION}, then a stream of
+ * records. Each record is a one byte opcode followed by its arguments in
+ * the same order as the GLApi method, with these encodings:</p>
+ * <p>所有的值都是小端序.追踪文件以int类型的{@link #MAGIC}开头,接着是int类型的{@link #VERSION},
+ * 之后是一串记录.每条记录是一个字节的操作码,后面跟着和GLApi方法顺序一致的参数,编码方式如下:</p>
+ * <ul>
+ *   <li>boolean - one byte, 0 or 1. 一个字节,0或1</li>
+ *   <li>String - int byte length, then UTF-8 bytes. int类型的字节长度,然后是UTF-8字节</li>
+ *   <li>float[] - the floats actually read by GL (count * 4 or count * 16).
+ *       GL实际读取的float(count * 4 或 count * 16个)</li>
+ *   <li>Buffer - int element kind ({@link #KIND_BYTE} ...), int byte length,
+ *       then the bytes from the buffer's position to its limit.
+ *       int类型的元素种类,int类型的字节长度,然后是buffer从position到limit的字节</li>
+ *   <li>Return values - appended after the arguments as an int.
+ *       返回值 - 作为int追加在参数之后</li>
+ * </ul>
+ *
+ * <p>This file must not depend on any android.* class.</p>
+ * <p>这个文件不能依赖任何android.*类</p>
+ */
+public final class TraceFormat {
+
+    public static final int MAGIC   = 0x52544C47; // "GLTR" 小端序
+    public static final int VERSION = 2;
+
+    public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+    private static final String   CHARSET    = "UTF-8";
+
+    // Frame markers
+    // 帧标记
+
+    /** long start nanos, int frame index. long开始纳秒数, int帧序号 */
+    public static final byte FRAME_BEGIN = 1;
+    /**
+     * long traced frame nanos (including trace encoding), int dropped records.
+     * long录制时的帧纳秒数(包含追踪编码耗时), int丢弃的记录数
+     */
+    public static final byte FRAME_END   = 2;
+
+    // GL calls, one per GLApi method
+    // GL调用,每个GLApi方法一个
+    public static final byte CLEAR_COLOR                  = 10;
+    public static final byte CLEAR                        = 11;
+    public static final byte VIEWPORT                     = 12;
+    public static final byte CREATE_SHADER                = 13;
+    public static final byte SHADER_SOURCE                = 14;
+    public static final byte COMPILE_SHADER               = 15;
+    public static final byte CREATE_PROGRAM               = 16;
+    public static final byte ATTACH_SHADER                = 17;
+    public static final byte LINK_PROGRAM                 = 18;
+    public static final byte USE_PROGRAM                  = 19;
+    public static final byte GET_ATTRIB_LOCATION          = 20;
+    public static final byte GET_UNIFORM_LOCATION         = 21;
+    public static final byte ENABLE_VERTEX_ATTRIB_ARRAY   = 22;
+    public static final byte DISABLE_VERTEX_ATTRIB_ARRAY  = 23;
+    public static final byte VERTEX_ATTRIB_POINTER        = 24;
+    public static final byte UNIFORM_4FV                  = 25;
+    public static final byte UNIFORM_MATRIX_4FV           = 26;
+    public static final byte DRAW_ARRAYS                  = 27;
+    public static final byte DRAW_ELEMENTS                = 28;
+    public static final byte GET_ERROR                    = 29;
+    public static final byte ENABLE                       = 30;
+    public static final byte DISABLE                      = 31;
+    public static final byte SCISSOR                      = 32;
+
+    /** One past the largest opcode, for sizing per-opcode tables. 最大操作码加一,用于确定按操作码索引的表的大小 */
+    public static final int OPCODE_LIMIT = 33;
+
+    // Element kinds of a recorded Buffer
+    // 录制的Buffer的元素种类
+    public static final int KIND_BYTE  = 0;
+    public static final int KIND_SHORT = 1;
+    public static final int KIND_INT   = 2;
+    public static final int KIND_FLOAT = 3;
+
+    private TraceFormat() {
+    }
+
+    // String.getBytes(Charset) needs API 9, so go through the charset name
+    // String.getBytes(Charset)需要API 9,因此使用字符集名称
+    static byte[] encodeString(String string) {
+        try {
+            return string.getBytes(CHARSET);
+        } catch (UnsupportedEncodingException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    static String decodeString(byte[] bytes) {
+        try {
+            return new String(bytes, CHARSET);
+        } catch (UnsupportedEncodingException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Returns a readable name for an opcode, used in replay reports.
+     * 返回操作码的可读名称,用于回放报告
+     */
+    public static String opcodeName(int opcode) {
+        switch (opcode) {
+            case FRAME_BEGIN:                 return "frameBegin";
+            case FRAME_END:                   return "frameEnd";
+            case CLEAR_COLOR:                 return "glClearColor";
+            case CLEAR:                       return "glClear";
+            case VIEWPORT:                    return "glViewport";
+            case CREATE_SHADER:               return "glCreateShader";
+            case SHADER_SOURCE:               return "glShaderSource";
+            case COMPILE_SHADER:              return "glCompileShader";
+            case CREATE_PROGRAM:              return "glCreateProgram";
+            case ATTACH_SHADER:               return "glAttachShader";
+            case LINK_PROGRAM:                return "glLinkProgram";
+            case USE_PROGRAM:                 return "glUseProgram";
+            case GET_ATTRIB_LOCATION:         return "glGetAttribLocation";
+            case GET_UNIFORM_LOCATION:        return "glGetUniformLocation";
+            case ENABLE_VERTEX_ATTRIB_ARRAY:  return "glEnableVertexAttribArray";
+            case DISABLE_VERTEX_ATTRIB_ARRAY: return "glDisableVertexAttribArray";
+            case VERTEX_ATTRIB_POINTER:       return "glVertexAttribPointer";
+            case UNIFORM_4FV:                 return "glUniform4fv";
+            case UNIFORM_MATRIX_4FV:          return "glUniformMatrix4fv";
+            case DRAW_ARRAYS:                 return "glDrawArrays";
+            case DRAW_ELEMENTS:               return "glDrawElements";
+            case GET_ERROR:                   return "glGetError";
+            case ENABLE:                      return "glEnable";
+            case DISABLE:                     return "glDisable";
+            case SCISSOR:                     return "glScissor";
+            default:                          return "unknown(" + opcode + ")";
+        }
+    }
+}
@@ -0,0 +1,501 @@
+/*
+ * Copyright (C) 2011 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.android.opengl;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Desktop replay tool for traces recorded by {@link TracingGL}. Replays
+ * every frame against {@link StubGL} to measure the CPU cost of decoding
+ * and submitting the calls, and prints per-frame call counts. Given a
+ * second trace (e.g. from the previous build) it prints the difference.
+ * The "traced frame" time it prints is what the device measured while
+ * tracing; it includes the tracing work and is not the app's submit cost.
+ * 用于回放{@link TracingGL}录制的追踪文件的桌面工具.
+ * 针对{@link StubGL}回放每一帧,以测量解码和提交这些调用的CPU开销,并打印每帧的调用次数.
+ * 如果提供了第二个追踪文件(例如来自上一个版本),则打印两者的差异.
+ * 打印的"traced frame"耗时是设备在录制时测得的,它包含录制本身的工作,不是应用的提交开销
+ *
+ * <p>Only needs the android-free classes, so it can be built and run
+ * straight from the source directory:</p>
+ * <p>只需要不依赖android的类,因此可以直接在源码目录中编译和运行:</p>
+ * <pre>
+ * javac -encoding UTF-8 -d out GLApi.java StubGL.java TraceFormat.java TraceReplay.java
+ * java -cp out com.example.android.opengl.TraceReplay [-n iterations] trace [baseline]</pre>
+ *
+ * <p>A trace is pulled from the device with
+ * {@code adb pull /sdcard/Android/data/com.example.android.opengl/files/frames.gltrace}</p>
+ * <p>可以通过上面的adb命令从设备中取出追踪文件</p>
+ */
+public final class TraceReplay {
+
+    private static final int DEFAULT_ITERATIONS = 20;
+
+    // Unmeasured passes over every trace first, so the JIT has compiled the
+    // replay loop before either trace is timed
+    // 先对每个追踪文件进行不计时的回放,使JIT在计时前已经编译好回放循环
+    private static final int WARMUP_ITERATIONS = 10;
+
+    /**
+     * Result of replaying one trace.
+     * 回放一个追踪文件的结果
+     */
+    public static final class Result {
+        /** Complete frames (FRAME_BEGIN to FRAME_END). 完整的帧(从FRAME_BEGIN到FRAME_END) */
+        public int frames;
+        /**
+         * Frames that lost any record on the device because the ring was full,
+         * including their FRAME_BEGIN or FRAME_END. They are only counted here
+         * and left out of {@link #frames}, {@link #frameCalls},
+         * {@link #tracedNanos} and {@link #replayNanos}, so the per-frame call
+         * counts only come from complete frames.
+         * 由于环形缓冲区已满而在设备上丢失了任何记录(包括FRAME_BEGIN或FRAME_END)的帧.
+         * 它们只计入这里,不计入{@link #frames},{@link #frameCalls},{@link #tracedNanos}和{@link #replayNanos},
+         * 因此每帧的调用次数只来自完整的帧
+         */
+        public int incompleteFrames;
+        /** True if the file ended in the middle of a record. 如果文件在一条记录中间结束则为true */
+        public boolean truncated;
+        /** Offset of the first undecodable record, or -1. 第一条无法解码的记录的偏移量,或-1 */
+        public int corruptOffset = -1;
+        /** Calls issued inside frames, indexed by opcode. 帧内发出的调用次数,按操作码索引 */
+        public final long[] frameCalls = new long[TraceFormat.OPCODE_LIMIT];
+        /** Calls issued outside any frame (setup). 在帧外发出的调用次数(初始化) */
+        public long setupCalls;
+        /**
+         * Traced frame time of each frame on the device. Includes TracingGL's
+         * own encoding, which usually dominates; it is not the app's submit cost.
+         * 设备上每一帧录制时的帧耗时.包含TracingGL自身的编码耗时(通常占大部分),它不是应用的提交开销
+         */
+        public long[] tracedNanos = new long[0];
+        /** Best replay time of each frame over all iterations. 每一帧在所有迭代中的最佳回放耗时 */
+        public long[] replayNanos = new long[0];
+        /** StubGL checksum after one pass, identical for identical input. 一次回放后StubGL的校验和,相同输入时一致 */
+        public long checksum;
+    }
+
+    private final ByteBuffer mTrace;
+    private final GLApi mGL;
+    private float[] mFloats = new float[64];
+
+    // Calls of the current frame, added to Result.frameCalls at its FRAME_END
+    // 当前帧的调用次数,在遇到它的FRAME_END时加入Result.frameCalls
+    private final long[] mPendingCalls = new long[TraceFormat.OPCODE_LIMIT];
+    // Calls since the last frame, added to Result.setupCalls unless they turn
+    // out to belong to a frame whose FRAME_BEGIN was dropped
+    // 上一帧之后的调用次数,加入Result.setupCalls,除非它们属于一个FRAME_BEGIN被丢弃的帧
+    private long mPendingSetupCalls;
+
+    private TraceReplay(ByteBuffer trace, GLApi gl) {
+        mTrace = trace;
+        mGL = gl;
+    }
+
+    /**
+     * Reads a trace file and checks its header.
+     * 读取追踪文件并检查文件头
+     *
+     * @return - The records, positioned after the header. 定位在文件头之后的记录数据
+     */
+    public static ByteBuffer load(File file) throws IOException {
+        byte[] bytes = new byte[(int) file.length()];
+        DataInputStream in = new DataInputStream(new FileInputStream(file));
+        try {
+            in.readFully(bytes);
+        } finally {
+            in.close();
+        }
+        ByteBuffer trace = ByteBuffer.wrap(bytes).order(TraceFormat.BYTE_ORDER);
+        if (bytes.length < 8 || trace.getInt() != TraceFormat.MAGIC) {
+            throw new IOException(file + " is not a frame trace");
+        }
+        int version = trace.getInt();
+        if (version != TraceFormat.VERSION) {
+            throw new IOException(file + " has unsupported trace version " + version);
+        }
+        return trace.slice().order(TraceFormat.BYTE_ORDER);
+    }
+
+    /**
+     * Replays the trace the given number of times against gl.
+     * 针对gl将追踪文件回放指定的次数
+     */
+    public static Result replay(ByteBuffer trace, GLApi gl, int iterations) {
+        Result result = new Result();
+        for (int i = 0; i < iterations; i++) {
+            replayPass(trace, gl, result, i == 0);
+        }
+        return result;
+    }
+
+    private static void replayPass(ByteBuffer trace, GLApi gl, Result result, boolean firstPass) {
+        if (gl instanceof StubGL) {
+            ((StubGL) gl).reset();
+        }
+        new TraceReplay(trace.duplicate().order(TraceFormat.BYTE_ORDER), gl)
+                .run(result, firstPass);
+        if (firstPass && gl instanceof StubGL) {
+            result.checksum = ((StubGL) gl).getChecksum();
+        }
+    }
+
+    private void run(Result result, boolean firstPass) {
+        int frame = 0;
+        boolean inFrame = false;
+        long frameStart = 0;
+        int offset = 0;
+        try {
+            while (mTrace.hasRemaining()) {
+                offset = mTrace.position();
+                byte opcode = mTrace.get();
+                switch (opcode) {
+                    case TraceFormat.FRAME_BEGIN:
+                        mTrace.getLong();
+                        mTrace.getInt();
+                        if (inFrame && firstPass) {
+                            // FRAME_END of the previous frame was dropped on the device
+                            // 上一帧的FRAME_END在设备上被丢弃了
+                            result.incompleteFrames++;
+                        }
+                        Arrays.fill(mPendingCalls, 0);
+                        result.setupCalls += mPendingSetupCalls;
+                        mPendingSetupCalls = 0;
+                        inFrame = true;
+                        frameStart = System.nanoTime();
+                        continue;
+                    case TraceFormat.FRAME_END: {
+                        long elapsed = System.nanoTime() - frameStart;
+                        long recorded = mTrace.getLong();
+                        int dropped = mTrace.getInt();
+                        if (!inFrame) {
+                            // FRAME_BEGIN was dropped on the device
+                            // FRAME_BEGIN在设备上被丢弃了
+                            if (firstPass) {
+                                result.incompleteFrames++;
+                            }
+                            mPendingSetupCalls = 0;
+                            continue;
+                        }
+                        inFrame = false;
+                        if (dropped > 0) {
+                            // Some records of this frame are missing. A dropped
+                            // FRAME_BEGIN is counted here too, so two frames merged
+                            // by a lost FRAME_END + FRAME_BEGIN pair end up here.
+                            // 这一帧的部分记录丢失了.丢失的FRAME_BEGIN也计入这里,
+                            // 因此由于丢失FRAME_END和FRAME_BEGIN而被合并的两帧也会落到这里
+                            if (firstPass) {
+                                result.incompleteFrames++;
+                            }
+                            continue;
+                        }
+                        if (firstPass) {
+                            if (frame == result.replayNanos.length) {
+                                result.replayNanos = resize(result.replayNanos,
+                                        Math.max(64, frame * 2));
+                                result.tracedNanos = resize(result.tracedNanos,
+                                        result.replayNanos.length);
+                                Arrays.fill(result.replayNanos, frame,
+                                        result.replayNanos.length, Long.MAX_VALUE);
+                            }
+                            result.frames++;
+                            result.tracedNanos[frame] = recorded;
+                            for (int op = 0; op < TraceFormat.OPCODE_LIMIT; op++) {
+                                result.frameCalls[op] += mPendingCalls[op];
+                            }
+                        }
+                        result.replayNanos[frame] = Math.min(result.replayNanos[frame], elapsed);
+                        frame++;
+                        continue;
+                    }
+                    default:
+                        if (!dispatch(opcode)) {
+                            result.corruptOffset = offset;
+                            return;
+                        }
+                        break;
+                }
+                if (firstPass) {
+                    if (inFrame) {
+                        mPendingCalls[opcode]++;
+                    } else {
+                        mPendingSetupCalls++;
+                    }
+                }
+            }
+        } catch (BufferUnderflowException e) {
+            result.truncated = true;
+        } catch (IllegalArgumentException e) {
+            // Garbage lengths or positions from a corrupt record
+            // 损坏的记录中的无效长度或位置
+            result.corruptOffset = offset;
+        } catch (NegativeArraySizeException e) {
+            result.corruptOffset = offset;
+        } finally {
+            if (firstPass) {
+                result.setupCalls += mPendingSetupCalls;
+                result.replayNanos = resize(result.replayNanos, result.frames);
+                result.tracedNanos = resize(result.tracedNanos, result.frames);
+            }
+        }
+    }
+
+    /**
+     * @return - false for an unknown opcode. 遇到未知的操作码时返回false
+     */
+    private boolean dispatch(byte opcode) {
+        ByteBuffer t = mTrace;
+        switch (opcode) {
+            case TraceFormat.CLEAR_COLOR:
+                mGL.glClearColor(t.getFloat(), t.getFloat(), t.getFloat(), t.getFloat());
+                break;
+            case TraceFormat.CLEAR:
+                mGL.glClear(t.getInt());
+                break;
+            case TraceFormat.VIEWPORT:
+                mGL.glViewport(t.getInt(), t.getInt(), t.getInt(), t.getInt());
+                break;
+            case TraceFormat.CREATE_SHADER:
+                mGL.glCreateShader(t.getInt());
+                t.getInt();
+                break;
+            case TraceFormat.SHADER_SOURCE:
+                mGL.glShaderSource(t.getInt(), readString());
+                break;
+            case TraceFormat.COMPILE_SHADER:
+                mGL.glCompileShader(t.getInt());
+                break;
+            case TraceFormat.CREATE_PROGRAM:
+                mGL.glCreateProgram();
+                t.getInt();
+                break;
+            case TraceFormat.ATTACH_SHADER:
+                mGL.glAttachShader(t.getInt(), t.getInt());
+                break;
+            case TraceFormat.LINK_PROGRAM:
+                mGL.glLinkProgram(t.getInt());
+                break;
+            case TraceFormat.USE_PROGRAM:
+                mGL.glUseProgram(t.getInt());
+                break;
+            case TraceFormat.GET_ATTRIB_LOCATION:
+                mGL.glGetAttribLocation(t.getInt(), readString());
+                t.getInt();
+                break;
+            case TraceFormat.GET_UNIFORM_LOCATION:
+                mGL.glGetUniformLocation(t.getInt(), readString());
+                t.getInt();
+                break;
+            case TraceFormat.ENABLE_VERTEX_ATTRIB_ARRAY:
+                mGL.glEnableVertexAttribArray(t.getInt());
+                break;
+            case TraceFormat.DISABLE_VERTEX_ATTRIB_ARRAY:
+                mGL.glDisableVertexAttribArray(t.getInt());
+                break;
+            case TraceFormat.VERTEX_ATTRIB_POINTER:
+                mGL.glVertexAttribPointer(t.getInt(), t.getInt(), t.getInt(), t.get() != 0,
+                        t.getInt(), readBuffer());
+                break;
+            case TraceFormat.UNIFORM_4FV: {
+                int location = t.getInt();
+                int count = t.getInt();
+                mGL.glUniform4fv(location, count, readFloats(count * 4), 0);
+                break;
+            }
+            case TraceFormat.UNIFORM_MATRIX_4FV: {
+                int location = t.getInt();
+                int count = t.getInt();
+                boolean transpose = t.get() != 0;
+                mGL.glUniformMatrix4fv(location, count, transpose, readFloats(count * 16), 0);
+                break;
+            }
+            case TraceFormat.DRAW_ARRAYS:
+                mGL.glDrawArrays(t.getInt(), t.getInt(), t.getInt());
+                break;
+            case TraceFormat.DRAW_ELEMENTS:
+                mGL.glDrawElements(t.getInt(), t.getInt(), t.getInt(), readBuffer());
+                break;
+            case TraceFormat.GET_ERROR:
+                mGL.glGetError();
+                t.getInt();
+                break;
+            case TraceFormat.ENABLE:
+                mGL.glEnable(t.getInt());
+                break;
+            case TraceFormat.DISABLE:
+                mGL.glDisable(t.getInt());
+                break;
+            case TraceFormat.SCISSOR:
+                mGL.glScissor(t.getInt(), t.getInt(), t.getInt(), t.getInt());
+                break;
+            default:
+                return false;
+        }
+        return true;
+    }
+
+    // Arrays.copyOf needs API 9
+    // Arrays.copyOf需要API 9
+    private static long[] resize(long[] array, int length) {
+        long[] resized = new long[length];
+        System.arraycopy(array, 0, resized, 0, Math.min(array.length, length));
+        return resized;
+    }
+
+    private String readString() {
+        byte[] bytes = new byte[mTrace.getInt()];
+        mTrace.get(bytes);
+        return TraceFormat.decodeString(bytes);
+    }
+
+    private float[] readFloats(int count) {
+        if (mFloats.length < count) {
+            mFloats = new float[count];
+        }
+        for (int i = 0; i < count; i++) {
+            mFloats[i] = mTrace.getFloat();
+        }
+        return mFloats;
+    }
+
+    private Buffer readBuffer() {
+        int kind = mTrace.getInt();
+        int length = mTrace.getInt();
+        if (length > mTrace.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        ByteBuffer bytes = mTrace.slice().order(TraceFormat.BYTE_ORDER);
+        bytes.limit(length);
+        mTrace.position(mTrace.position() + length);
+        switch (kind) {
+            case TraceFormat.KIND_FLOAT: return bytes.asFloatBuffer();
+            case TraceFormat.KIND_SHORT: return bytes.asShortBuffer();
+            case TraceFormat.KIND_INT:   return bytes.asIntBuffer();
+            default:                     return bytes;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int iterations = DEFAULT_ITERATIONS;
+        String tracePath = null;
+        String baselinePath = null;
+        for (int i = 0; i < args.length; i++) {
+            if ("-n".equals(args[i]) && i + 1 < args.length) {
+                iterations = Integer.parseInt(args[++i]);
+            } else if (tracePath == null) {
+                tracePath = args[i];
+            } else {
+                baselinePath = args[i];
+            }
+        }
+        if (tracePath == null || iterations < 1) {
+            System.err.println("usage: TraceReplay [-n iterations] trace [baseline]");
+            System.exit(2);
+        }
+
+        ByteBuffer trace = load(new File(tracePath));
+        ByteBuffer baselineTrace = baselinePath != null ? load(new File(baselinePath)) : null;
+        StubGL gl = new StubGL();
+        replay(trace, gl, WARMUP_ITERATIONS);
+        if (baselineTrace != null) {
+            replay(baselineTrace, gl, WARMUP_ITERATIONS);
+        }
+
+        // Interleave the passes so both traces see the same JIT and machine state
+        // 交替进行回放,使两个追踪文件处于相同的JIT和机器状态下
+        Result current = new Result();
+        Result baseline = new Result();
+        for (int i = 0; i < iterations; i++) {
+            replayPass(trace, gl, current, i == 0);
+            if (baselineTrace != null) {
+                replayPass(baselineTrace, gl, baseline, i == 0);
+            }
+        }
+
+        System.out.println("== " + tracePath);
+        print(current);
+        if (baselineTrace != null) {
+            System.out.println("== " + baselinePath);
+            print(baseline);
+            System.out.println("== diff (trace - baseline), calls per frame");
+            printDiff(current, baseline);
+        }
+    }
+
+    private static void print(Result r) {
+        System.out.println("frames: " + r.frames
+                + (r.incompleteFrames > 0 ? " (" + r.incompleteFrames + " incomplete)" : "")
+                + (r.truncated ? " [truncated]" : "")
+                + (r.corruptOffset >= 0 ? " [corrupt at offset " + r.corruptOffset + "]" : ""));
+        System.out.println("setup calls: " + r.setupCalls);
+        System.out.println("checksum: " + Long.toHexString(r.checksum));
+        if (r.frames == 0) {
+            return;
+        }
+        long[] traced = r.tracedNanos.clone();
+        Arrays.sort(traced);
+        System.out.println("traced frame ns (not submit cost): p50 "
+                + percentile(traced, 50) + "  p95 " + percentile(traced, 95)
+                + "  max " + traced[traced.length - 1]);
+        long[] sorted = r.replayNanos.clone();
+        Arrays.sort(sorted);
+        System.out.println("replay ns/frame: p50 " + percentile(sorted, 50)
+                + "  p95 " + percentile(sorted, 95)
+                + "  max " + sorted[sorted.length - 1]);
+        for (int op = 0; op < TraceFormat.OPCODE_LIMIT; op++) {
+            if (r.frameCalls[op] > 0) {
+                System.out.println(String.format("  %-28s %8.2f",
+                        TraceFormat.opcodeName(op), perFrame(r, op)));
+            }
+        }
+    }
+
+    private static void printDiff(Result a, Result b) {
+        for (int op = 0; op < TraceFormat.OPCODE_LIMIT; op++) {
+            if (a.frameCalls[op] == 0 && b.frameCalls[op] == 0) {
+                continue;
+            }
+            double delta = perFrame(a, op) - perFrame(b, op);
+            System.out.println(String.format("  %-28s %8.2f %8.2f %+8.2f%s",
+                    TraceFormat.opcodeName(op), perFrame(a, op), perFrame(b, op), delta,
+                    delta != 0 ? "  <--" : ""));
+        }
+        if (a.frames > 0 && b.frames > 0) {
+            long[] sa = a.replayNanos.clone();
+            long[] sb = b.replayNanos.clone();
+            Arrays.sort(sa);
+            Arrays.sort(sb);
+            long pa = percentile(sa, 50);
+            long pb = percentile(sb, 50);
+            System.out.println(String.format("  replay p50 ns/frame %d vs %d (%+.1f%%)",
+                    pa, pb, pb == 0 ? 0.0 : 100.0 * (pa - pb) / pb));
+        }
+    }
+
+    private static double perFrame(Result r, int op) {
+        return r.frames == 0 ? 0 : (double) r.frameCalls[op] / r.frames;
+    }
+
+    private static long percentile(long[] sorted, int percent) {
+        return sorted[Math.min(sorted.length - 1, sorted.length * percent / 100)];
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2011 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.android.opengl;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free single-producer / single-consumer byte ring buffer.
+ * The GL thread is the only producer and {@link TraceWriter} is the only
+ * consumer, so neither side ever blocks on the other.
+ * 一个无锁的单生产者/单消费者字节环形缓冲区.
+ * GL线程是唯一的生产者,{@link TraceWriter}是唯一的消费者,因此双方都不会互相阻塞
+ */
+public class TraceRingBuffer {
+
+    private final byte[] mData;
+    private final int mMask;
+
+    // Total bytes ever written / read. Only the producer advances mHead and
+    // only the consumer advances mTail; the volatile write publishes the data.
+    // 累计写入/读取的字节数.只有生产者推进mHead,只有消费者推进mTail;volatile写入用于发布数据
+    private final AtomicLong mHead = new AtomicLong();
+    private final AtomicLong mTail = new AtomicLong();
+
+    /**
+     * @param capacity - Size in bytes, must be a power of two. 字节大小,必须是2的幂
+     */
+    public TraceRingBuffer(int capacity) {
+        if (capacity <= 0 || (capacity & (capacity - 1)) != 0) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        }
+        mData = new byte[capacity];
+        mMask = capacity - 1;
+    }
+
+    /**
+     * Copies a whole record into the ring. Records are never split: if there
+     * is not enough room the record is rejected and nothing is written.
+     * Producer thread only.
+     * 将一整条记录复制到环形缓冲区中.记录不会被拆分:如果空间不足,记录将被拒绝且不写入任何内容.
+     * 仅限生产者线程调用
+     *
+     * @return - true if the record was written. 如果记录已写入则返回true
+     */
+    public boolean offer(byte[] src, int offset, int length) {
+        long head = mHead.get();
+        if (length > mData.length - (head - mTail.get())) {
+            return false;
+        }
+        int index = (int) head & mMask;
+        int first = Math.min(length, mData.length - index);
+        System.arraycopy(src, offset, mData, index, first);
+        System.arraycopy(src, offset + first, mData, 0, length - first);
+        mHead.set(head + length);
+        return true;
+    }
+
+    /**
+     * Moves up to dst.length bytes out of the ring. Consumer thread only.
+     * 从环形缓冲区中取出最多dst.length个字节.仅限消费者线程调用
+     *
+     * @return - Number of bytes copied, 0 if the ring is empty. 复制的字节数,环为空时返回0
+     */
+    public int drain(byte[] dst) {
+        long tail = mTail.get();
+        int length = (int) Math.min(dst.length, mHead.get() - tail);
+        if (length == 0) {
+            return 0;
+        }
+        int index = (int) tail & mMask;
+        int first = Math.min(length, mData.length - index);
+        System.arraycopy(mData, index, dst, 0, first);
+        System.arraycopy(mData, 0, dst, first, length - first);
+        mTail.set(tail + length);
+        return length;
+    }
+
+    public boolean isEmpty() {
+        return mHead.get() == mTail.get();
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2011 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.android.opengl;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import android.util.Log;
+
+/**
+ * Background thread that drains a {@link TraceRingBuffer} into a trace
+ * file, so the GL thread never touches the file system or waits for it.
+ * 将{@link TraceRingBuffer}中的数据写入追踪文件的后台线程,这样GL线程永远不会接触文件系统,也不会等待它
+ */
+public class TraceWriter extends Thread {
+
+    private static final String TAG = "TraceWriter";
+
+    // How long to sleep when the ring is empty
+    // 环形缓冲区为空时的休眠时长
+    private static final long IDLE_SLEEP_MS = 4;
+
+    private final TraceRingBuffer mRing;
+    private final File mFile;
+    private TraceWriter mPrevious;
+    private volatile boolean mRunning = true;
+
+    /**
+     * @param previous - Writer of the previous trace, or null. It may still be
+     *                 writing the same file, so this writer waits for it to end
+     *                 before opening the file; records queue up in the ring meanwhile.
+     *                 上一次录制的写入线程,或null.它可能仍在写入同一个文件,
+     *                 因此本写入线程会等它结束后再打开文件;在此期间记录在环形缓冲区中排队
+     */
+    public TraceWriter(TraceRingBuffer ring, File file, TraceWriter previous) {
+        super("TraceWriter");
+        mRing = ring;
+        mFile = file;
+        mPrevious = previous;
+    }
+
+    @Override
+    public void run() {
+        if (mPrevious != null) {
+            while (mPrevious.isAlive()) {
+                try {
+                    mPrevious.join();
+                } catch (InterruptedException e) {
+                    // Keep waiting, the file must not be written twice at once
+                    // 继续等待,不能同时写入同一个文件两次
+                }
+            }
+            mPrevious = null;
+        }
+
+        byte[] chunk = new byte[16 * 1024];
+        OutputStream out = null;
+        try {
+            out = new BufferedOutputStream(new FileOutputStream(mFile), 64 * 1024);
+            ByteBuffer header = ByteBuffer.allocate(8).order(TraceFormat.BYTE_ORDER);
+            header.putInt(TraceFormat.MAGIC).putInt(TraceFormat.VERSION);
+            out.write(header.array());
+
+            // Keep draining after finish() until the ring is empty
+            // 在finish()之后继续写出直到环形缓冲区为空
+            while (true) {
+                boolean running = mRunning;
+                int length = mRing.drain(chunk);
+                if (length > 0) {
+                    out.write(chunk, 0, length);
+                } else if (!running) {
+                    break;
+                } else {
+                    // Flush while idle so an interrupted session still leaves a usable trace
+                    // 空闲时刷新,这样即使会话中断也能留下可用的追踪文件
+                    out.flush();
+                    try {
+                        Thread.sleep(IDLE_SLEEP_MS);
+                    } catch (InterruptedException e) {
+                        mRunning = false;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to write frame trace " + mFile, e);
+        } finally {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    Log.e(TAG, "Failed to close frame trace " + mFile, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Asks the thread to write out everything still in the ring and then
+     * stop. Returns immediately; errors are logged by the thread itself.
+     * The producer must have stopped offering records before this is called.
+     * 要求线程写出环形缓冲区中剩余的全部内容然后停止.本方法立即返回;错误由线程自己记录到日志.
+     * 调用本方法前生产者必须已经停止提交记录
+     */
+    public void finish() {
+        mRunning = false;
+    }
+}
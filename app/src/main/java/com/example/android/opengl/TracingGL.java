@@ -0,0 +1,449 @@
+/*
+ * Copyright (C) 2011 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.android.opengl;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.util.HashMap;
+
+/**
+ * {@link GLApi} decorator that forwards every call to another GLApi and,
+ * while a {@link TraceRingBuffer} is attached, encodes the call and its
+ * arguments (including uniform data and client-side vertex/index buffers)
+ * into the ring in the {@link TraceFormat} layout.
+ * 一个{@link GLApi}装饰器,它将每个调用转发给另一个GLApi,
+ * 并且在连接了{@link TraceRingBuffer}时,按{@link TraceFormat}的格式将调用及其参数
+ * (包括uniform数据和客户端顶点/索引缓冲区)编码写入环形缓冲区
+ *
+ * <p>Must only be used from the GL thread. When the ring is full a record
+ * is dropped rather than blocking the GL thread; the number of dropped
+ * records is written into the FRAME_END record so replay can flag the
+ * frame as incomplete.</p>
+ * <p>只能在GL线程中使用.当环形缓冲区满时将丢弃记录而不是阻塞GL线程;
+ * 丢弃的记录数会写入FRAME_END记录,以便回放时将这一帧标记为不完整</p>
+ */
+public class TracingGL implements GLApi {
+
+    private final GLApi mDelegate;
+    private TraceRingBuffer mRing;
+
+    // Scratch space for encoding one record, grown on demand
+    // 用于编码单条记录的临时空间,按需增长
+    private ByteBuffer mRecord = newRecordBuffer(256);
+
+    // UTF-8 bytes of the attribute/uniform names, which are looked up every draw
+    // 属性/uniform名称的UTF-8字节,这些名称在每次绘制时都会被查询
+    private final HashMap<String, byte[]> mNameBytes = new HashMap<String, byte[]>();
+
+    private int mFrameIndex;
+    private long mFrameStartNanos;
+    private int mFrameDropped;
+    private long mTotalDropped;
+
+    public TracingGL(GLApi delegate) {
+        mDelegate = delegate;
+    }
+
+    /**
+     * Starts recording into the given ring, or stops recording if ring is null.
+     * The frame index and dropped counts restart only when a new ring is
+     * attached, so {@link #getDroppedRecords()} still reports the last trace
+     * after it stops.
+     * 开始录制到指定的环形缓冲区,如果ring为null则停止录制.
+     * 帧序号和丢弃计数仅在连接新的环形缓冲区时重置,因此录制停止后{@link #getDroppedRecords()}仍会报告上一次录制的结果
+     */
+    public void setRing(TraceRingBuffer ring) {
+        mRing = ring;
+        if (ring != null) {
+            mFrameIndex = 0;
+            mFrameDropped = 0;
+            mTotalDropped = 0;
+        }
+    }
+
+    public boolean isTracing() {
+        return mRing != null;
+    }
+
+    /**
+     * Returns how many records of the current or last trace were dropped
+     * because the ring was full.
+     * 返回当前或上一次录制中由于环形缓冲区已满而被丢弃的记录数
+     */
+    public long getDroppedRecords() {
+        return mTotalDropped;
+    }
+
+    /**
+     * Marks the start of a frame. Call first thing in onDrawFrame().
+     * 标记一帧的开始.在onDrawFrame()的最开始调用
+     */
+    public void beginFrame() {
+        if (mRing == null) {
+            return;
+        }
+        mFrameDropped = 0;
+        mFrameStartNanos = System.nanoTime();
+        begin(TraceFormat.FRAME_BEGIN, 12);
+        mRecord.putLong(mFrameStartNanos);
+        mRecord.putInt(mFrameIndex++);
+        commit();
+    }
+
+    /**
+     * Marks the end of a frame. Call last thing in onDrawFrame(). The frame
+     * time written to the trace includes the time spent encoding records,
+     * which usually dominates, so it is not the untraced cost of the frame.
+     * 标记一帧的结束.在onDrawFrame()的最后调用.
+     * 写入追踪的帧耗时包含了编码记录所花的时间(通常占大部分),因此它不是未录制时这一帧的开销
+     */
+    public void endFrame() {
+        if (mRing == null) {
+            return;
+        }
+        long tracedNanos = System.nanoTime() - mFrameStartNanos;
+        begin(TraceFormat.FRAME_END, 12);
+        mRecord.putLong(tracedNanos);
+        mRecord.putInt(mFrameDropped);
+        commit();
+    }
+
+    @Override
+    public void glClearColor(float red, float green, float blue, float alpha) {
+        mDelegate.glClearColor(red, green, blue, alpha);
+        if (mRing != null) {
+            begin(TraceFormat.CLEAR_COLOR, 16);
+            mRecord.putFloat(red).putFloat(green).putFloat(blue).putFloat(alpha);
+            commit();
+        }
+    }
+
+    @Override
+    public void glClear(int mask) {
+        mDelegate.glClear(mask);
+        if (mRing != null) {
+            begin(TraceFormat.CLEAR, 4);
+            mRecord.putInt(mask);
+            commit();
+        }
+    }
+
+    @Override
+    public void glViewport(int x, int y, int width, int height) {
+        mDelegate.glViewport(x, y, width, height);
+        if (mRing != null) {
+            begin(TraceFormat.VIEWPORT, 16);
+            mRecord.putInt(x).putInt(y).putInt(width).putInt(height);
+            commit();
+        }
+    }
+
+    @Override
+    public void glEnable(int cap) {
+        mDelegate.glEnable(cap);
+        if (mRing != null) {
+            begin(TraceFormat.ENABLE, 4);
+            mRecord.putInt(cap);
+            commit();
+        }
+    }
+
+    @Override
+    public void glDisable(int cap) {
+        mDelegate.glDisable(cap);
+        if (mRing != null) {
+            begin(TraceFormat.DISABLE, 4);
+            mRecord.putInt(cap);
+            commit();
+        }
+    }
+
+    @Override
+    public void glScissor(int x, int y, int width, int height) {
+        mDelegate.glScissor(x, y, width, height);
+        if (mRing != null) {
+            begin(TraceFormat.SCISSOR, 16);
+            mRecord.putInt(x).putInt(y).putInt(width).putInt(height);
+            commit();
+        }
+    }
+
+    @Override
+    public int glCreateShader(int type) {
+        int shader = mDelegate.glCreateShader(type);
+        if (mRing != null) {
+            begin(TraceFormat.CREATE_SHADER, 8);
+            mRecord.putInt(type).putInt(shader);
+            commit();
+        }
+        return shader;
+    }
+
+    @Override
+    public void glShaderSource(int shader, String string) {
+        mDelegate.glShaderSource(shader, string);
+        if (mRing != null) {
+            byte[] source = TraceFormat.encodeString(string);
+            begin(TraceFormat.SHADER_SOURCE, 8 + source.length);
+            mRecord.putInt(shader);
+            mRecord.putInt(source.length).put(source);
+            commit();
+        }
+    }
+
+    @Override
+    public void glCompileShader(int shader) {
+        mDelegate.glCompileShader(shader);
+        if (mRing != null) {
+            begin(TraceFormat.COMPILE_SHADER, 4);
+            mRecord.putInt(shader);
+            commit();
+        }
+    }
+
+    @Override
+    public int glCreateProgram() {
+        int program = mDelegate.glCreateProgram();
+        if (mRing != null) {
+            begin(TraceFormat.CREATE_PROGRAM, 4);
+            mRecord.putInt(program);
+            commit();
+        }
+        return program;
+    }
+
+    @Override
+    public void glAttachShader(int program, int shader) {
+        mDelegate.glAttachShader(program, shader);
+        if (mRing != null) {
+            begin(TraceFormat.ATTACH_SHADER, 8);
+            mRecord.putInt(program).putInt(shader);
+            commit();
+        }
+    }
+
+    @Override
+    public void glLinkProgram(int program) {
+        mDelegate.glLinkProgram(program);
+        if (mRing != null) {
+            begin(TraceFormat.LINK_PROGRAM, 4);
+            mRecord.putInt(program);
+            commit();
+        }
+    }
+
+    @Override
+    public void glUseProgram(int program) {
+        mDelegate.glUseProgram(program);
+        if (mRing != null) {
+            begin(TraceFormat.USE_PROGRAM, 4);
+            mRecord.putInt(program);
+            commit();
+        }
+    }
+
+    @Override
+    public int glGetAttribLocation(int program, String name) {
+        int location = mDelegate.glGetAttribLocation(program, name);
+        if (mRing != null) {
+            recordLocation(TraceFormat.GET_ATTRIB_LOCATION, program, name, location);
+        }
+        return location;
+    }
+
+    @Override
+    public int glGetUniformLocation(int program, String name) {
+        int location = mDelegate.glGetUniformLocation(program, name);
+        if (mRing != null) {
+            recordLocation(TraceFormat.GET_UNIFORM_LOCATION, program, name, location);
+        }
+        return location;
+    }
+
+    @Override
+    public void glEnableVertexAttribArray(int index) {
+        mDelegate.glEnableVertexAttribArray(index);
+        if (mRing != null) {
+            begin(TraceFormat.ENABLE_VERTEX_ATTRIB_ARRAY, 4);
+            mRecord.putInt(index);
+            commit();
+        }
+    }
+
+    @Override
+    public void glDisableVertexAttribArray(int index) {
+        mDelegate.glDisableVertexAttribArray(index);
+        if (mRing != null) {
+            begin(TraceFormat.DISABLE_VERTEX_ATTRIB_ARRAY, 4);
+            mRecord.putInt(index);
+            commit();
+        }
+    }
+
+    @Override
+    public void glVertexAttribPointer(int indx, int size, int type, boolean normalized,
+                                      int stride, Buffer ptr) {
+        mDelegate.glVertexAttribPointer(indx, size, type, normalized, stride, ptr);
+        if (mRing != null) {
+            begin(TraceFormat.VERTEX_ATTRIB_POINTER, 17 + bufferRecordSize(ptr));
+            mRecord.putInt(indx).putInt(size).putInt(type);
+            mRecord.put((byte) (normalized ? 1 : 0));
+            mRecord.putInt(stride);
+            putBuffer(ptr);
+            commit();
+        }
+    }
+
+    @Override
+    public void glUniform4fv(int location, int count, float[] v, int offset) {
+        mDelegate.glUniform4fv(location, count, v, offset);
+        if (mRing != null) {
+            begin(TraceFormat.UNIFORM_4FV, 8 + count * 4 * 4);
+            mRecord.putInt(location).putInt(count);
+            putFloats(v, offset, count * 4);
+            commit();
+        }
+    }
+
+    @Override
+    public void glUniformMatrix4fv(int location, int count, boolean transpose,
+                                   float[] value, int offset) {
+        mDelegate.glUniformMatrix4fv(location, count, transpose, value, offset);
+        if (mRing != null) {
+            begin(TraceFormat.UNIFORM_MATRIX_4FV, 9 + count * 16 * 4);
+            mRecord.putInt(location).putInt(count);
+            mRecord.put((byte) (transpose ? 1 : 0));
+            putFloats(value, offset, count * 16);
+            commit();
+        }
+    }
+
+    @Override
+    public void glDrawArrays(int mode, int first, int count) {
+        mDelegate.glDrawArrays(mode, first, count);
+        if (mRing != null) {
+            begin(TraceFormat.DRAW_ARRAYS, 12);
+            mRecord.putInt(mode).putInt(first).putInt(count);
+            commit();
+        }
+    }
+
+    @Override
+    public void glDrawElements(int mode, int count, int type, Buffer indices) {
+        mDelegate.glDrawElements(mode, count, type, indices);
+        if (mRing != null) {
+            begin(TraceFormat.DRAW_ELEMENTS, 12 + bufferRecordSize(indices));
+            mRecord.putInt(mode).putInt(count).putInt(type);
+            putBuffer(indices);
+            commit();
+        }
+    }
+
+    @Override
+    public int glGetError() {
+        int error = mDelegate.glGetError();
+        if (mRing != null) {
+            begin(TraceFormat.GET_ERROR, 4);
+            mRecord.putInt(error);
+            commit();
+        }
+        return error;
+    }
+
+    private void recordLocation(byte opcode, int program, String name, int location) {
+        byte[] bytes = mNameBytes.get(name);
+        if (bytes == null) {
+            bytes = TraceFormat.encodeString(name);
+            mNameBytes.put(name, bytes);
+        }
+        begin(opcode, 12 + bytes.length);
+        mRecord.putInt(program);
+        mRecord.putInt(bytes.length).put(bytes);
+        mRecord.putInt(location);
+        commit();
+    }
+
+    private void begin(byte opcode, int payloadSize) {
+        int size = 1 + payloadSize;
+        if (mRecord.capacity() < size) {
+            mRecord = newRecordBuffer(Math.max(size, mRecord.capacity() * 2));
+        }
+        mRecord.clear();
+        mRecord.put(opcode);
+    }
+
+    private void commit() {
+        if (!mRing.offer(mRecord.array(), 0, mRecord.position())) {
+            mFrameDropped++;
+            mTotalDropped++;
+        }
+    }
+
+    private void putFloats(float[] values, int offset, int count) {
+        for (int i = 0; i < count; i++) {
+            mRecord.putFloat(values[offset + i]);
+        }
+    }
+
+    private static int bufferRecordSize(Buffer buffer) {
+        int elementSize;
+        if (buffer instanceof FloatBuffer || buffer instanceof IntBuffer) {
+            elementSize = 4;
+        } else if (buffer instanceof ShortBuffer) {
+            elementSize = 2;
+        } else {
+            elementSize = 1;
+        }
+        return 8 + buffer.remaining() * elementSize;
+    }
+
+    // Copies the buffer from position to limit without moving its position
+    // 复制buffer从position到limit的内容,但不移动它的position
+    private void putBuffer(Buffer buffer) {
+        if (buffer instanceof FloatBuffer) {
+            FloatBuffer src = ((FloatBuffer) buffer).duplicate();
+            mRecord.putInt(TraceFormat.KIND_FLOAT).putInt(src.remaining() * 4);
+            while (src.hasRemaining()) {
+                mRecord.putFloat(src.get());
+            }
+        } else if (buffer instanceof ShortBuffer) {
+            ShortBuffer src = ((ShortBuffer) buffer).duplicate();
+            mRecord.putInt(TraceFormat.KIND_SHORT).putInt(src.remaining() * 2);
+            while (src.hasRemaining()) {
+                mRecord.putShort(src.get());
+            }
+        } else if (buffer instanceof IntBuffer) {
+            IntBuffer src = ((IntBuffer) buffer).duplicate();
+            mRecord.putInt(TraceFormat.KIND_INT).putInt(src.remaining() * 4);
+            while (src.hasRemaining()) {
+                mRecord.putInt(src.get());
+            }
+        } else if (buffer instanceof ByteBuffer) {
+            ByteBuffer src = ((ByteBuffer) buffer).duplicate();
+            mRecord.putInt(TraceFormat.KIND_BYTE).putInt(src.remaining());
+            mRecord.put(src);
+        } else {
+            throw new IllegalArgumentException("Unsupported buffer type: " + buffer.getClass());
+        }
+    }
+
+    private static ByteBuffer newRecordBuffer(int capacity) {
+        return ByteBuffer.allocate(capacity).order(TraceFormat.BYTE_ORDER);
+    }
+}
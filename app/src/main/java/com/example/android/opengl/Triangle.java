@@ -19,8 +19,6 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
 
-import android.opengl.GLES20;
-
 /**
  * A two-dimensional triangle for use as a drawn object in OpenGL ES 2.0.
  * 一个在OpenGL ES 2.0中绘制用的二维三角形对象
@@ -51,6 +49,7 @@ public class Triangle {
             "}";
 
     private final FloatBuffer vertexBuffer;
+    private final GLApi mGL;
     private final int mProgram;
     private int mPositionHandle;
     private int mColorHandle;
@@ -66,6 +65,10 @@ public class Triangle {
            -0.5f, -0.311004243f, 0.0f,   // bottom left 左下
             0.5f, -0.311004243f, 0.0f    // bottom right 右下
     };
+    // radius of a sphere around the origin containing all vertices, used for culling
+    // 以原点为中心并包含所有顶点的球的半径,用于剔除
+    static final float BOUNDING_RADIUS = 0.622008459f;
+
     private final int vertexCount = triangleCoords.length / COORDS_PER_VERTEX;
     private final int vertexStride = COORDS_PER_VERTEX * 4; // 4 bytes per vertex 每个顶点4字节
 
@@ -74,8 +77,12 @@ public class Triangle {
     /**
      * Sets up the drawing object data for use in an OpenGL ES context.
      * 初始化一个在OpenGL ES中绘制的对象数据
+     *
+     * @param gl - Target for all GL calls of this shape. 用于发出GL调用的对象
      */
-    public Triangle() {
+    public Triangle(GLApi gl) {
+        mGL = gl;
+
         // initialize vertex byte buffer for shape coordinates
         // 初始化形状坐标的顶点ByteBuffer
         ByteBuffer bb = ByteBuffer.allocateDirect(
@@ -99,15 +106,15 @@ public class Triangle {
 
         // prepare shaders and OpenGL program
         // 准备Shaders(着色器)和OpenGL程序
-        int vertexShader = MyGLRenderer.loadShader(
-                GLES20.GL_VERTEX_SHADER, vertexShaderCode);
-        int fragmentShader = MyGLRenderer.loadShader(
-                GLES20.GL_FRAGMENT_SHADER, fragmentShaderCode);
+        int vertexShader = MyGLRenderer.loadShader(mGL,
+                GLApi.GL_VERTEX_SHADER, vertexShaderCode);
+        int fragmentShader = MyGLRenderer.loadShader(mGL,
+                GLApi.GL_FRAGMENT_SHADER, fragmentShaderCode);
 
-        mProgram = GLES20.glCreateProgram();             // create empty OpenGL Program         创建一个空的OpenGL程序
-        GLES20.glAttachShader(mProgram, vertexShader);   // add the vertex shader to program    添加顶点着色器到程序中
-        GLES20.glAttachShader(mProgram, fragmentShader); // add the fragment shader to program  添加片段着色器到程序中
-        GLES20.glLinkProgram(mProgram);                  // create OpenGL program executables   创建OpenGL可执行程序
+        mProgram = mGL.glCreateProgram();             // create empty OpenGL Program         创建一个空的OpenGL程序
+        mGL.glAttachShader(mProgram, vertexShader);   // add the vertex shader to program    添加顶点着色器到程序中
+        mGL.glAttachShader(mProgram, fragmentShader); // add the fragment shader to program  添加片段着色器到程序中
+        mGL.glLinkProgram(mProgram);                  // create OpenGL program executables   创建OpenGL可执行程序
 
     }
 
@@ -122,48 +129,48 @@ public class Triangle {
     public void draw(float[] mvpMatrix) {
         // Add program to OpenGL environment
         // 添加程序到OpenGL环境
-        GLES20.glUseProgram(mProgram);
+        mGL.glUseProgram(mProgram);
 
         // get handle to vertex shader's vPosition member
         // 获得顶点着色器的vPosition成员的操作句柄
-        mPositionHandle = GLES20.glGetAttribLocation(mProgram, "vPosition");
+        mPositionHandle = mGL.glGetAttribLocation(mProgram, "vPosition");
 
         // Enable a handle to the triangle vertices
         // 为这些三角形顶点启用一个句柄 [即将mPositionHandle作为三角形顶点的操作句柄]
-        GLES20.glEnableVertexAttribArray(mPositionHandle);
+        mGL.glEnableVertexAttribArray(mPositionHandle);
 
         // Prepare the triangle coordinate data
         // 准备三角形坐标数据
-        GLES20.glVertexAttribPointer(
+        mGL.glVertexAttribPointer(
                 mPositionHandle, COORDS_PER_VERTEX,
-                GLES20.GL_FLOAT, false,
+                GLApi.GL_FLOAT, false,
                 vertexStride, vertexBuffer);
 
         // get handle to fragment shader's vColor member
         // 获得片段着色器的vColor成员
-        mColorHandle = GLES20.glGetUniformLocation(mProgram, "vColor");
+        mColorHandle = mGL.glGetUniformLocation(mProgram, "vColor");
 
         // Set color for drawing the triangle
         // 设置要绘制的三角形的颜色
-        GLES20.glUniform4fv(mColorHandle, 1, color, 0);
+        mGL.glUniform4fv(mColorHandle, 1, color, 0);
 
         // get handle to shape's transformation matrix
         // 获得图形的变换矩阵的操作句柄
-        mMVPMatrixHandle = GLES20.glGetUniformLocation(mProgram, "uMVPMatrix");
-        MyGLRenderer.checkGlError("glGetUniformLocation");
+        mMVPMatrixHandle = mGL.glGetUniformLocation(mProgram, "uMVPMatrix");
+        MyGLRenderer.checkGlError(mGL, "glGetUniformLocation");
 
         // Apply the projection and view transformation
         // 应用投影和视图变换
-        GLES20.glUniformMatrix4fv(mMVPMatrixHandle, 1, false, mvpMatrix, 0);
-        MyGLRenderer.checkGlError("glUniformMatrix4fv");
+        mGL.glUniformMatrix4fv(mMVPMatrixHandle, 1, false, mvpMatrix, 0);
+        MyGLRenderer.checkGlError(mGL, "glUniformMatrix4fv");
 
         // Draw the triangle
         // 绘制三角形
-        GLES20.glDrawArrays(GLES20.GL_TRIANGLES, 0, vertexCount);
+        mGL.glDrawArrays(GLApi.GL_TRIANGLES, 0, vertexCount);
 
         // Disable vertex array
         // 禁用顶点数组
-        GLES20.glDisableVertexAttribArray(mPositionHandle);
+        mGL.glDisableVertexAttribArray(mPositionHandle);
     }
 
 }
@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2011 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.android.opengl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+
+import org.junit.Test;
+
+public class TraceReplayTest {
+
+    private final FloatBuffer mVertices = ByteBuffer.allocateDirect(9 * 4)
+            .order(ByteOrder.nativeOrder()).asFloatBuffer();
+    private final ShortBuffer mIndices = ByteBuffer.allocateDirect(6 * 2)
+            .order(ByteOrder.nativeOrder()).asShortBuffer();
+    private final float[] mMatrix = new float[16];
+
+    // One frame issuing exactly one of each call
+    // 每种调用恰好发出一次的一帧
+    private void drawFrame(TracingGL gl, int frame) {
+        gl.beginFrame();
+        gl.glClear(GLApi.GL_COLOR_BUFFER_BIT);
+        gl.glVertexAttribPointer(0, 3, GLApi.GL_FLOAT, false, 12, mVertices);
+        mMatrix[0] = frame;
+        gl.glUniformMatrix4fv(1, 1, false, mMatrix, 0);
+        gl.glDrawElements(GLApi.GL_TRIANGLES, 6, GLApi.GL_UNSIGNED_SHORT, mIndices);
+        gl.endFrame();
+    }
+
+    private static void drain(TraceRingBuffer ring, ByteArrayOutputStream out, int chunkSize) {
+        byte[] chunk = new byte[chunkSize];
+        int length;
+        while ((length = ring.drain(chunk)) > 0) {
+            out.write(chunk, 0, length);
+        }
+    }
+
+    private static void drainOnce(TraceRingBuffer ring, ByteArrayOutputStream out, int chunkSize) {
+        byte[] chunk = new byte[chunkSize];
+        out.write(chunk, 0, ring.drain(chunk));
+    }
+
+    private static ByteBuffer trace(ByteArrayOutputStream out) {
+        return ByteBuffer.wrap(out.toByteArray()).order(TraceFormat.BYTE_ORDER);
+    }
+
+    private static long perFrame(TraceReplay.Result result, int opcode) {
+        return result.frameCalls[opcode] / result.frames;
+    }
+
+    @Test
+    public void replayIssuesTheRecordedCalls() {
+        StubGL recorded = new StubGL();
+        TracingGL gl = new TracingGL(recorded);
+        TraceRingBuffer ring = new TraceRingBuffer(1 << 16);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        gl.setRing(ring);
+        for (int frame = 0; frame < 100; frame++) {
+            drawFrame(gl, frame);
+            drain(ring, out, 1024);
+        }
+        gl.setRing(null);
+        assertEquals(0, gl.getDroppedRecords());
+
+        TraceReplay.Result result = TraceReplay.replay(trace(out), new StubGL(), 2);
+        assertEquals(100, result.frames);
+        assertEquals(0, result.incompleteFrames);
+        assertFalse(result.truncated);
+        assertEquals(-1, result.corruptOffset);
+        assertEquals(100, result.replayNanos.length);
+        assertEquals(100 * 4, result.frameCalls[TraceFormat.CLEAR]
+                + result.frameCalls[TraceFormat.VERTEX_ATTRIB_POINTER]
+                + result.frameCalls[TraceFormat.UNIFORM_MATRIX_4FV]
+                + result.frameCalls[TraceFormat.DRAW_ELEMENTS]);
+
+        // StubGL folds every argument, including buffer sizes and matrix data
+        // StubGL会折叠所有参数,包括缓冲区大小和矩阵数据
+        assertEquals(recorded.getChecksum(), result.checksum);
+    }
+
+    @Test
+    public void overflowedFramesDoNotSkewCallCounts() {
+        TracingGL gl = new TracingGL(new StubGL());
+        // The writer drains less than a frame per frame, so the ring stays
+        // nearly full and records are dropped at varying places, including
+        // FRAME_BEGIN and FRAME_END
+        // 写入线程每帧取出的数据不足一帧,因此环形缓冲区几乎一直是满的,
+        // 记录会在不同位置被丢弃,包括FRAME_BEGIN和FRAME_END
+        TraceRingBuffer ring = new TraceRingBuffer(256);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        gl.setRing(ring);
+        for (int frame = 0; frame < 1000; frame++) {
+            drawFrame(gl, frame);
+            drainOnce(ring, out, 13 + frame % 7 * 17);
+        }
+        drain(ring, out, 1024);
+        gl.setRing(null);
+        assertTrue(gl.getDroppedRecords() > 0);
+
+        TraceReplay.Result result = TraceReplay.replay(trace(out), new StubGL(), 1);
+        assertTrue(result.frames > 0);
+        assertTrue(result.incompleteFrames > 0);
+        assertTrue(result.frames + result.incompleteFrames <= 1000);
+        assertEquals(1, perFrame(result, TraceFormat.CLEAR));
+        assertEquals(result.frames, result.frameCalls[TraceFormat.CLEAR]);
+        assertEquals(result.frames, result.frameCalls[TraceFormat.VERTEX_ATTRIB_POINTER]);
+        assertEquals(result.frames, result.frameCalls[TraceFormat.UNIFORM_MATRIX_4FV]);
+        assertEquals(result.frames, result.frameCalls[TraceFormat.DRAW_ELEMENTS]);
+        assertEquals(result.frames, result.tracedNanos.length);
+    }
+
+    @Test
+    public void framesMergedByDroppedMarkersAreIncomplete() {
+        // Frame A lost its FRAME_END and frame B its FRAME_BEGIN, so their
+        // calls run together; B's FRAME_END reports the drop
+        // 帧A丢失了FRAME_END,帧B丢失了FRAME_BEGIN,因此它们的调用连在一起;B的FRAME_END报告了丢弃
+        ByteBuffer t = ByteBuffer.allocate(256).order(TraceFormat.BYTE_ORDER);
+        t.put(TraceFormat.FRAME_BEGIN).putLong(0).putInt(0);
+        t.put(TraceFormat.CLEAR).putInt(GLApi.GL_COLOR_BUFFER_BIT);
+        t.put(TraceFormat.CLEAR).putInt(GLApi.GL_COLOR_BUFFER_BIT);
+        t.put(TraceFormat.FRAME_END).putLong(10).putInt(1);
+        t.put(TraceFormat.FRAME_BEGIN).putLong(20).putInt(2);
+        t.put(TraceFormat.CLEAR).putInt(GLApi.GL_COLOR_BUFFER_BIT);
+        t.put(TraceFormat.FRAME_END).putLong(30).putInt(0);
+        t.flip();
+
+        TraceReplay.Result result = TraceReplay.replay(t, new StubGL(), 1);
+        assertEquals(1, result.frames);
+        assertEquals(1, result.incompleteFrames);
+        assertEquals(1, result.frameCalls[TraceFormat.CLEAR]);
+        assertEquals(30, result.tracedNanos[0]);
+    }
+
+    @Test
+    public void truncatedTraceKeepsCompleteFrames() {
+        ByteBuffer t = ByteBuffer.allocate(256).order(TraceFormat.BYTE_ORDER);
+        t.put(TraceFormat.FRAME_BEGIN).putLong(0).putInt(0);
+        t.put(TraceFormat.CLEAR).putInt(GLApi.GL_COLOR_BUFFER_BIT);
+        t.put(TraceFormat.FRAME_END).putLong(10).putInt(0);
+        t.put(TraceFormat.FRAME_BEGIN).putLong(20).putInt(1);
+        t.put(TraceFormat.VIEWPORT).putInt(0).putInt(0);
+        t.flip();
+
+        TraceReplay.Result result = TraceReplay.replay(t, new StubGL(), 1);
+        assertTrue(result.truncated);
+        assertEquals(1, result.frames);
+        assertEquals(1, result.frameCalls[TraceFormat.CLEAR]);
+        assertEquals(0, result.frameCalls[TraceFormat.VIEWPORT]);
+    }
+
+    @Test
+    public void unknownOpcodeMarksTheTraceCorrupt() {
+        ByteBuffer t = ByteBuffer.allocate(256).order(TraceFormat.BYTE_ORDER);
+        t.put(TraceFormat.FRAME_BEGIN).putLong(0).putInt(0);
+        t.put(TraceFormat.FRAME_END).putLong(10).putInt(0);
+        int offset = t.position();
+        t.put((byte) 0x7f).putInt(0);
+        t.flip();
+
+        TraceReplay.Result result = TraceReplay.replay(t, new StubGL(), 1);
+        assertEquals(offset, result.corruptOffset);
+        assertEquals(1, result.frames);
+    }
+}
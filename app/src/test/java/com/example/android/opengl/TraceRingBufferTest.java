@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2011 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.android.opengl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TraceRingBufferTest {
+
+    private static byte[] bytes(int first, int length) {
+        byte[] b = new byte[length];
+        for (int i = 0; i < length; i++) {
+            b[i] = (byte) (first + i);
+        }
+        return b;
+    }
+
+    private static byte[] drainAll(TraceRingBuffer ring, int length) {
+        byte[] out = new byte[length];
+        assertEquals(length, ring.drain(out));
+        return out;
+    }
+
+    @Test
+    public void recordsWrapAroundTheEnd() {
+        TraceRingBuffer ring = new TraceRingBuffer(16);
+
+        // Move the indices to 10 so the next record crosses the end of the array
+        // 将索引移动到10,使下一条记录跨越数组末尾
+        assertTrue(ring.offer(bytes(0, 10), 0, 10));
+        drainAll(ring, 10);
+        assertTrue(ring.isEmpty());
+
+        assertTrue(ring.offer(bytes(50, 12), 0, 12));
+        assertArrayEquals(bytes(50, 12), drainAll(ring, 12));
+        assertTrue(ring.isEmpty());
+    }
+
+    @Test
+    public void recordsAreNeverSplit() {
+        TraceRingBuffer ring = new TraceRingBuffer(16);
+        assertTrue(ring.offer(bytes(0, 10), 0, 10));
+
+        // 6 bytes free: a 7 byte record is rejected whole, a 6 byte one fits
+        // 剩余6个字节:7字节的记录被整条拒绝,6字节的可以放入
+        assertFalse(ring.offer(bytes(20, 7), 0, 7));
+        assertTrue(ring.offer(bytes(30, 6), 0, 6));
+        assertFalse(ring.offer(bytes(40, 1), 0, 1));
+
+        byte[] expected = new byte[16];
+        System.arraycopy(bytes(0, 10), 0, expected, 0, 10);
+        System.arraycopy(bytes(30, 6), 0, expected, 10, 6);
+        assertArrayEquals(expected, drainAll(ring, 16));
+    }
+
+    @Test
+    public void drainStopsAtTheDestinationSize() {
+        TraceRingBuffer ring = new TraceRingBuffer(16);
+        assertTrue(ring.offer(bytes(0, 12), 0, 12));
+        assertArrayEquals(bytes(0, 5), drainAll(ring, 5));
+        assertArrayEquals(bytes(5, 7), drainAll(ring, 7));
+        assertEquals(0, ring.drain(new byte[4]));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void capacityMustBeAPowerOfTwo() {
+        new TraceRingBuffer(12);
+    }
+}
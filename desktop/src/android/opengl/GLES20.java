@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2011 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package android.opengl;
+
+import java.nio.Buffer;
+
+/**
+ * Desktop stand-in so AndroidGL compiles. There is no GL on the desktop,
+ * every method throws; the benchmark draws to StubGL instead.
+ * 使AndroidGL可以编译的桌面替身.桌面上没有GL,所有方法都会抛出异常;基准测试改为绘制到StubGL
+ */
+public class GLES20 {
+
+    private static RuntimeException noGL() {
+        return new UnsupportedOperationException("no GL on the desktop");
+    }
+
+    public static void glClearColor(float red, float green, float blue, float alpha) {
+        throw noGL();
+    }
+
+    public static void glClear(int mask) {
+        throw noGL();
+    }
+
+    public static void glViewport(int x, int y, int width, int height) {
+        throw noGL();
+    }
+
+    public static void glEnable(int cap) {
+        throw noGL();
+    }
+
+    public static void glDisable(int cap) {
+        throw noGL();
+    }
+
+    public static void glScissor(int x, int y, int width, int height) {
+        throw noGL();
+    }
+
+    public static int glCreateShader(int type) {
+        throw noGL();
+    }
+
+    public static void glShaderSource(int shader, String string) {
+        throw noGL();
+    }
+
+    public static void glCompileShader(int shader) {
+        throw noGL();
+    }
+
+    public static int glCreateProgram() {
+        throw noGL();
+    }
+
+    public static void glAttachShader(int program, int shader) {
+        throw noGL();
+    }
+
+    public static void glLinkProgram(int program) {
+        throw noGL();
+    }
+
+    public static void glUseProgram(int program) {
+        throw noGL();
+    }
+
+    public static int glGetAttribLocation(int program, String name) {
+        throw noGL();
+    }
+
+    public static int glGetUniformLocation(int program, String name) {
+        throw noGL();
+    }
+
+    public static void glEnableVertexAttribArray(int index) {
+        throw noGL();
+    }
+
+    public static void glDisableVertexAttribArray(int index) {
+        throw noGL();
+    }
+
+    public static void glVertexAttribPointer(int indx, int size, int type, boolean normalized, int stride, Buffer ptr) {
+        throw noGL();
+    }
+
+    public static void glUniform4fv(int location, int count, float[] v, int offset) {
+        throw noGL();
+    }
+
+    public static void glUniformMatrix4fv(int location, int count, boolean transpose, float[] value, int offset) {
+        throw noGL();
+    }
+
+    public static void glDrawArrays(int mode, int first, int count) {
+        throw noGL();
+    }
+
+    public static void glDrawElements(int mode, int count, int type, Buffer indices) {
+        throw noGL();
+    }
+
+    public static int glGetError() {
+        throw noGL();
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2011 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package android.opengl;
+
+/**
+ * Desktop stand-in for the android.opengl.Matrix methods the renderer
+ * uses, with the same column-major layout and results. Only for running
+ * {@link com.example.android.opengl.DesktopBenchmark}; never packaged.
+ * android.opengl.Matrix中渲染器用到的方法在桌面上的替身,布局和结果与其一致(列主序).
+ * 仅用于运行{@link com.example.android.opengl.DesktopBenchmark},不会被打包
+ */
+public class Matrix {
+
+    /**
+     * result = lhs * rhs. As on Android, result must not overlap lhs or rhs.
+     * result = lhs * rhs.与Android一样,result不能与lhs或rhs重叠
+     */
+    public static void multiplyMM(float[] result, int resultOffset,
+                                  float[] lhs, int lhsOffset, float[] rhs, int rhsOffset) {
+        for (int col = 0; col < 4; col++) {
+            for (int row = 0; row < 4; row++) {
+                float sum = 0;
+                for (int k = 0; k < 4; k++) {
+                    sum += lhs[lhsOffset + k * 4 + row] * rhs[rhsOffset + col * 4 + k];
+                }
+                result[resultOffset + col * 4 + row] = sum;
+            }
+        }
+    }
+
+    public static void frustumM(float[] m, int offset, float left, float right,
+                                float bottom, float top, float near, float far) {
+        float width = 1.0f / (right - left);
+        float height = 1.0f / (top - bottom);
+        float depth = 1.0f / (near - far);
+        for (int i = 0; i < 16; i++) {
+            m[offset + i] = 0;
+        }
+        m[offset]      = 2.0f * near * width;
+        m[offset + 5]  = 2.0f * near * height;
+        m[offset + 8]  = (right + left) * width;
+        m[offset + 9]  = (top + bottom) * height;
+        m[offset + 10] = (far + near) * depth;
+        m[offset + 11] = -1.0f;
+        m[offset + 14] = 2.0f * far * near * depth;
+    }
+
+    public static void setLookAtM(float[] rm, int offset,
+                                  float eyeX, float eyeY, float eyeZ,
+                                  float centerX, float centerY, float centerZ,
+                                  float upX, float upY, float upZ) {
+        float fx = centerX - eyeX;
+        float fy = centerY - eyeY;
+        float fz = centerZ - eyeZ;
+        float rlf = 1.0f / (float) Math.sqrt(fx * fx + fy * fy + fz * fz);
+        fx *= rlf;
+        fy *= rlf;
+        fz *= rlf;
+
+        // s = f x up
+        float sx = fy * upZ - fz * upY;
+        float sy = fz * upX - fx * upZ;
+        float sz = fx * upY - fy * upX;
+        float rls = 1.0f / (float) Math.sqrt(sx * sx + sy * sy + sz * sz);
+        sx *= rls;
+        sy *= rls;
+        sz *= rls;
+
+        // u = s x f
+        float ux = sy * fz - sz * fy;
+        float uy = sz * fx - sx * fz;
+        float uz = sx * fy - sy * fx;
+
+        rm[offset]      = sx;
+        rm[offset + 1]  = ux;
+        rm[offset + 2]  = -fx;
+        rm[offset + 3]  = 0.0f;
+        rm[offset + 4]  = sy;
+        rm[offset + 5]  = uy;
+        rm[offset + 6]  = -fy;
+        rm[offset + 7]  = 0.0f;
+        rm[offset + 8]  = sz;
+        rm[offset + 9]  = uz;
+        rm[offset + 10] = -fz;
+        rm[offset + 11] = 0.0f;
+
+        // Same as translateM(rm, offset, -eyeX, -eyeY, -eyeZ)
+        for (int i = 0; i < 4; i++) {
+            rm[offset + 12 + i] = -(rm[offset + i] * eyeX + rm[offset + 4 + i] * eyeY
+                    + rm[offset + 8 + i] * eyeZ);
+        }
+        rm[offset + 15] = 1.0f;
+    }
+
+    public static void setRotateM(float[] rm, int offset, float a, float x, float y, float z) {
+        a *= (float) (Math.PI / 180.0f);
+        float s = (float) Math.sin(a);
+        float c = (float) Math.cos(a);
+        float length = (float) Math.sqrt(x * x + y * y + z * z);
+        x /= length;
+        y /= length;
+        z /= length;
+        float nc = 1.0f - c;
+        rm[offset]      = x * x * nc + c;
+        rm[offset + 1]  = x * y * nc + z * s;
+        rm[offset + 2]  = z * x * nc - y * s;
+        rm[offset + 3]  = 0.0f;
+        rm[offset + 4]  = x * y * nc - z * s;
+        rm[offset + 5]  = y * y * nc + c;
+        rm[offset + 6]  = y * z * nc + x * s;
+        rm[offset + 7]  = 0.0f;
+        rm[offset + 8]  = z * x * nc + y * s;
+        rm[offset + 9]  = y * z * nc - x * s;
+        rm[offset + 10] = z * z * nc + c;
+        rm[offset + 11] = 0.0f;
+        rm[offset + 12] = 0.0f;
+        rm[offset + 13] = 0.0f;
+        rm[offset + 14] = 0.0f;
+        rm[offset + 15] = 1.0f;
+    }
+}
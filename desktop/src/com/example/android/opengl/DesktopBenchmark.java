@@ -0,0 +1,35 @@
+/*
+ * Copyright (C) 2011 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.android.opengl;
+
+/**
+ * Runs {@link MultiViewBenchmark} on a desktop JVM, with the desktop
+ * stand-ins in this directory in place of the android classes it touches.
+ * The numbers are only comparable with each other: the device's JIT, CPU
+ * and native Matrix.multiplyMM differ. From the repository root:
+ * 在桌面JVM上运行{@link MultiViewBenchmark},用本目录中的桌面替身代替它用到的android类.
+ * 得到的数字只能相互比较:设备上的JIT,CPU和原生的Matrix.multiplyMM都不同.在仓库根目录中:
+ * <pre>
+ * javac -encoding UTF-8 -d out -sourcepath desktop/src:app/src/main/java \
+ *     desktop/src/com/example/android/opengl/DesktopBenchmark.java
+ * java -cp out com.example.android.opengl.DesktopBenchmark</pre>
+ */
+public class DesktopBenchmark {
+
+    public static void main(String[] args) {
+        new MultiViewBenchmark().run();
+    }
+}